@@ -0,0 +1,178 @@
+package com.victorrendina.mvi.processor
+
+import java.io.IOException
+import javax.annotation.processing.AbstractProcessor
+import javax.annotation.processing.RoundEnvironment
+import javax.lang.model.SourceVersion
+import javax.lang.model.element.Element
+import javax.lang.model.element.ElementKind
+import javax.lang.model.element.Modifier
+import javax.lang.model.element.TypeElement
+import javax.lang.model.type.DeclaredType
+import javax.lang.model.type.TypeKind
+import javax.lang.model.type.TypeMirror
+import javax.lang.model.util.ElementFilter
+import javax.tools.Diagnostic
+
+/**
+ * Generates a `<State>Selectors` class next to every concrete, non generic class implementing `MviState`. The class
+ * has one `MviSelector` constant per property which calls the property getter directly, so subscriptions using it
+ * do not go through Kotlin reflection on every state emission.
+ *
+ * States do not need an annotation, every type in the round is checked, which is why the processor claims no
+ * annotations and lets other processors see all of them.
+ */
+class MviSelectorProcessor : AbstractProcessor() {
+
+    override fun getSupportedAnnotationTypes(): Set<String> = setOf("*")
+
+    override fun getSupportedSourceVersion(): SourceVersion = SourceVersion.latestSupported()
+
+    override fun process(annotations: Set<TypeElement>, roundEnv: RoundEnvironment): Boolean {
+        val stateElement = processingEnv.elementUtils.getTypeElement(MVI_STATE) ?: return false
+        val stateType = processingEnv.typeUtils.erasure(stateElement.asType())
+
+        roundEnv.rootElements
+            .flatMap { collectTypes(it) }
+            .filter { it.isSelectableState(stateType) }
+            .forEach { generateSelectors(it) }
+        return false
+    }
+
+    private fun collectTypes(element: Element): List<TypeElement> {
+        if (element !is TypeElement) return emptyList()
+        return listOf(element) + ElementFilter.typesIn(element.enclosedElements).flatMap { collectTypes(it) }
+    }
+
+    private fun TypeElement.isSelectableState(stateType: TypeMirror): Boolean =
+        kind == ElementKind.CLASS &&
+            Modifier.ABSTRACT !in modifiers &&
+            typeParameters.isEmpty() &&
+            isAccessible() &&
+            processingEnv.typeUtils.isAssignable(processingEnv.typeUtils.erasure(asType()), stateType)
+
+    private fun TypeElement.isAccessible(): Boolean {
+        var element: Element? = this
+        while (element is TypeElement) {
+            if (Modifier.PRIVATE in element.modifiers) return false
+            // Nested classes that are not static need an outer instance and can never be states
+            if (element.enclosingElement is TypeElement && Modifier.STATIC !in element.modifiers) return false
+            element = element.enclosingElement
+        }
+        return true
+    }
+
+    private fun generateSelectors(state: TypeElement) {
+        val packageName = processingEnv.elementUtils.getPackageOf(state).qualifiedName.toString()
+        val className = selectorsClassName(state)
+        val stateName = state.qualifiedName.toString()
+
+        val source = StringBuilder()
+        if (packageName.isNotEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n")
+        }
+        source.append("import $MVI_SELECTOR;\n\n")
+            .append("/**\n * Selectors for the properties of {@link ").append(stateName).append("}.\n")
+            .append(" * Generated by ").append(javaClass.simpleName).append(", do not edit.\n */\n")
+            .append("public final class ").append(className).append(" {\n")
+
+        findProperties(state).forEach { property ->
+            val selectorType = "MviSelector<$stateName, ${property.type}>"
+            source.append("\n    public static final ").append(selectorType).append(' ').append(property.fieldName)
+                .append(" = new ").append(selectorType).append("(\"").append(property.name).append("\") {\n")
+                .append("        @Override\n")
+                .append("        public ").append(property.type).append(" invoke(").append(stateName)
+                .append(" state) {\n")
+                .append("            return state.").append(property.getter).append("();\n")
+                .append("        }\n")
+                .append("    };\n")
+        }
+
+        source.append("\n    private ").append(className).append("() {\n    }\n}\n")
+
+        val qualifiedName = if (packageName.isNotEmpty()) "$packageName.$className" else className
+        try {
+            processingEnv.filer.createSourceFile(qualifiedName, state).openWriter().use { it.write(source.toString()) }
+        } catch (e: IOException) {
+            processingEnv.messager.printMessage(
+                Diagnostic.Kind.ERROR,
+                "Unable to write selectors for $stateName: ${e.message}",
+                state
+            )
+        }
+    }
+
+    /**
+     * Properties are the instance fields of the state and its super classes that have a public getter, which is what
+     * the Kotlin compiler produces for every public `val`. Kapt leaves fields named like a Java keyword out of the
+     * stubs it passes to processors, those properties are found by their getter instead.
+     */
+    private fun findProperties(state: TypeElement): List<Property> {
+        val properties = LinkedHashMap<String, Property>()
+        var type: TypeElement? = state
+        while (type != null && type.qualifiedName.toString() != Any::class.java.name) {
+            val getters = ElementFilter.methodsIn(type.enclosedElements)
+                .filter { Modifier.PUBLIC in it.modifiers && Modifier.STATIC !in it.modifiers && it.parameters.isEmpty() }
+                .associateBy { it.simpleName.toString() }
+
+            ElementFilter.fieldsIn(type.enclosedElements)
+                .filter { Modifier.STATIC !in it.modifiers }
+                .forEach { field ->
+                    val name = field.simpleName.toString()
+                    if (name in properties || '$' in name) return@forEach
+                    val getter = getterNames(name).mapNotNull { getters[it] }.firstOrNull() ?: return@forEach
+                    properties[name] = Property(name, getter.simpleName.toString(), boxed(getter.returnType))
+                }
+
+            getters.values.forEach { getter ->
+                val getterName = getter.simpleName.toString()
+                if (!getterName.startsWith("get")) return@forEach
+                val name = getterName.removePrefix("get").decapitalize()
+                if (SourceVersion.isKeyword(name) && name !in properties) {
+                    properties[name] = Property(name, getterName, boxed(getter.returnType))
+                }
+            }
+
+            type = (type.superclass as? DeclaredType)?.asElement() as? TypeElement
+        }
+        return properties.values.toList()
+    }
+
+    private fun getterNames(property: String): List<String> {
+        val names = mutableListOf("get" + property.capitalize())
+        // Kotlin keeps the name of boolean properties starting with "is" for their getter
+        if (property.length > 2 && property.startsWith("is") && property[2].isUpperCase()) {
+            names.add(0, property)
+        }
+        return names
+    }
+
+    private fun boxed(type: TypeMirror): String =
+        if (type.kind.isPrimitive) {
+            processingEnv.typeUtils.boxedClass(processingEnv.typeUtils.getPrimitiveType(type.kind)).qualifiedName.toString()
+        } else if (type.kind == TypeKind.VOID) {
+            Void::class.java.name
+        } else {
+            type.toString()
+        }
+
+    private fun selectorsClassName(state: TypeElement): String {
+        val names = mutableListOf<String>()
+        var element: Element? = state
+        while (element is TypeElement) {
+            names.add(0, element.simpleName.toString())
+            element = element.enclosingElement
+        }
+        return names.joinToString("_") + "Selectors"
+    }
+
+    private class Property(val name: String, val getter: String, val type: String) {
+        // Property names that are Java keywords are legal in Kotlin but not as a field name in the generated class
+        val fieldName: String = if (SourceVersion.isKeyword(name)) "${name}_" else name
+    }
+
+    companion object {
+        private const val MVI_STATE = "com.victorrendina.mvi.MviState"
+        private const val MVI_SELECTOR = "com.victorrendina.mvi.MviSelector"
+    }
+}
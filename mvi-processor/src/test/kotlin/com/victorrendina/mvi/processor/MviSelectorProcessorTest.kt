@@ -0,0 +1,169 @@
+package com.victorrendina.mvi.processor
+
+import com.google.testing.compile.Compilation
+import com.google.testing.compile.CompilationSubject.assertThat
+import com.google.testing.compile.Compiler.javac
+import com.google.testing.compile.JavaFileObjects
+import org.junit.Assert.assertFalse
+import org.junit.Test
+import javax.tools.JavaFileObject
+
+/**
+ * Compiles states written the way kapt presents Kotlin classes to processors, a private field with a public getter
+ * per property, and checks the generated selectors. Every compilation also compiles the generated sources.
+ */
+class MviSelectorProcessorTest {
+
+    @Test
+    fun `boolean properties starting with is use the getter of the same name`() {
+        val compilation = compile(
+            "test.FlagState",
+            """
+            package test;
+
+            public final class FlagState implements com.victorrendina.mvi.MviState {
+                private final boolean isEnabled = true;
+                private final boolean visible = true;
+
+                public final boolean isEnabled() { return isEnabled; }
+                public final boolean getVisible() { return visible; }
+            }
+            """
+        )
+
+        assertThat(compilation).succeeded()
+        assertThat(compilation).generatedSourceFile("test.FlagStateSelectors").contentsAsUtf8String().apply {
+            contains("MviSelector<test.FlagState, java.lang.Boolean> isEnabled")
+            contains("return state.isEnabled();")
+            contains("MviSelector<test.FlagState, java.lang.Boolean> visible")
+            contains("return state.getVisible();")
+        }
+    }
+
+    @Test
+    fun `nested states are named after their enclosing classes and inner classes are skipped`() {
+        val compilation = compile(
+            "test.Screen",
+            """
+            package test;
+
+            public final class Screen {
+                public static final class State implements com.victorrendina.mvi.MviState {
+                    private final int count = 1000;
+
+                    public final int getCount() { return count; }
+                }
+
+                public final class InnerState implements com.victorrendina.mvi.MviState {
+                    private final int count = 0;
+
+                    public final int getCount() { return count; }
+                }
+            }
+            """
+        )
+
+        assertThat(compilation).succeeded()
+        assertThat(compilation).generatedSourceFile("test.Screen_StateSelectors").contentsAsUtf8String()
+            .contains("MviSelector<test.Screen.State, java.lang.Integer> count")
+        assertFalse(compilation.generatedSourceFile("test.Screen_InnerStateSelectors").isPresent)
+    }
+
+    @Test
+    fun `internal properties with mangled getters are skipped`() {
+        val compilation = compile(
+            "test.ModuleState",
+            """
+            package test;
+
+            public final class ModuleState implements com.victorrendina.mvi.MviState {
+                private final String title = "";
+                private final String secret = "";
+
+                public final String getTitle() { return title; }
+                public final String getSecret${'$'}mvi_debug() { return secret; }
+            }
+            """
+        )
+
+        assertThat(compilation).succeeded()
+        assertThat(compilation).generatedSourceFile("test.ModuleStateSelectors").contentsAsUtf8String().apply {
+            contains("return state.getTitle();")
+            doesNotContain("secret")
+        }
+    }
+
+    @Test
+    fun `properties named like java keywords get an escaped field`() {
+        // Kapt drops fields named like a keyword from its stubs, only the getter is left
+        val compilation = compile(
+            "test.KeywordState",
+            """
+            package test;
+
+            public final class KeywordState implements com.victorrendina.mvi.MviState {
+                public final String getDefault() { return ""; }
+                public final int getNew() { return 0; }
+            }
+            """
+        )
+
+        assertThat(compilation).succeeded()
+        assertThat(compilation).generatedSourceFile("test.KeywordStateSelectors").contentsAsUtf8String().apply {
+            contains("MviSelector<test.KeywordState, java.lang.String> default_")
+            contains("(\"default\")")
+            contains("return state.getDefault();")
+            contains("MviSelector<test.KeywordState, java.lang.Integer> new_")
+        }
+    }
+
+    @Test
+    fun `states without properties get an empty selectors class`() {
+        val compilation = compile(
+            "test.EmptyState",
+            """
+            package test;
+
+            public final class EmptyState implements com.victorrendina.mvi.MviState {
+            }
+            """
+        )
+
+        assertThat(compilation).succeeded()
+        assertThat(compilation).generatedSourceFile("test.EmptyStateSelectors").contentsAsUtf8String().apply {
+            contains("public final class EmptyStateSelectors")
+            doesNotContain("MviSelector<")
+        }
+    }
+
+    private fun compile(name: String, source: String): Compilation = javac()
+        .withProcessors(MviSelectorProcessor())
+        .compile(MVI_STATE, MVI_SELECTOR, JavaFileObjects.forSourceString(name, source.trimIndent()))
+
+    companion object {
+        // The processor only refers to these by name, so minimal Java versions are enough to compile against
+        private val MVI_STATE: JavaFileObject = JavaFileObjects.forSourceString(
+            "com.victorrendina.mvi.MviState",
+            """
+            package com.victorrendina.mvi;
+
+            public interface MviState {
+            }
+            """.trimIndent()
+        )
+
+        private val MVI_SELECTOR: JavaFileObject = JavaFileObjects.forSourceString(
+            "com.victorrendina.mvi.MviSelector",
+            """
+            package com.victorrendina.mvi;
+
+            public abstract class MviSelector<S, P> {
+                public MviSelector(String name) {
+                }
+
+                public abstract P invoke(S state);
+            }
+            """.trimIndent()
+        )
+    }
+}
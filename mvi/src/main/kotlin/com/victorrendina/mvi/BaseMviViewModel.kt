@@ -6,16 +6,22 @@ import androidx.lifecycle.ViewModel
 import androidx.annotation.CallSuper
 import androidx.annotation.RestrictTo
 import android.util.Log
-import com.victorrendina.rxqueue2.QueueSubject
 import io.reactivex.Completable
 import io.reactivex.Observable
+import io.reactivex.Scheduler
 import io.reactivex.Single
 import io.reactivex.android.schedulers.AndroidSchedulers
 import io.reactivex.disposables.CompositeDisposable
 import io.reactivex.disposables.Disposable
+import io.reactivex.disposables.Disposables
 import io.reactivex.functions.Consumer
+import io.reactivex.internal.functions.Functions
+import io.reactivex.internal.observers.LambdaObserver
 import io.reactivex.schedulers.Schedulers
-import io.reactivex.subjects.Subject
+import java.util.concurrent.CopyOnWriteArrayList
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.map
 import kotlin.reflect.KProperty1
 import kotlin.reflect.KVisibility
 
@@ -23,20 +29,59 @@ import kotlin.reflect.KVisibility
 abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
     initialState: S,
     protected val arguments: A? = null,
-    private val debugMode: Boolean = false
+    private val debugMode: Boolean = false,
+    stateStoreFactory: MviStateStoreFactory = MviStateStoreFactory.DEFAULT,
+    frameAlignedDelivery: Boolean = false,
+    private val changeDetection: MviChangeDetection = MviChangeDetection.EQUALITY
 ) : ViewModel() {
 
     protected val tag: String by lazy { javaClass.simpleName }
     private val disposables = CompositeDisposable()
 
-    private val stateStore: MviStateStore<S> = WorkerMviStateStore(initialState)
+    private val stateStore: MviStateStore<S> = stateStoreFactory.create(initialState)
+
+    // State emitted on the main thread is delivered without posting another message to the main looper
+    private val deliveryScheduler: Scheduler =
+        if (stateStore.emitsOnMainThread) ImmediateMainThreadScheduler else AndroidSchedulers.mainThread()
+
+    // The store emits every new state instance, equal states are only filtered here if the view model asks for it
+    private val distinctStates: Observable<S> = when (changeDetection) {
+        MviChangeDetection.EQUALITY -> stateStore.observable.distinctUntilChanged()
+        MviChangeDetection.REFERENCE -> stateStore.observable
+    }
+
+    // Derived selectors of this view model, computed on the store thread before states reach the frame conflater
+    private val derivedSelectors = CopyOnWriteArrayList<MviDerivedSelector<S, *>>()
+
+    // When enabled, views receive at most one state per frame from the conflater instead of every state
+    private val frameConflater: MviFrameConflater<S>? =
+        if (frameAlignedDelivery) {
+            MviFrameConflater(distinctStates.doOnNext { state -> derivedSelectors.forEach { it(state) } }, initialState)
+        } else null
+    private val viewObservable: Observable<S> = frameConflater?.observable ?: distinctStates
+    private val viewDeliveryScheduler: Scheduler =
+        if (frameConflater != null) ImmediateMainThreadScheduler else deliveryScheduler
+
     private lateinit var mutableStateChecker: MutableStateChecker<S>
 
-    // TODO Need to be able to send messages to multiple listeners
-    private val messageQueue: Subject<Any> = QueueSubject.create<Any>().toSerialized()
+    // Subscriptions of the view model itself and of views, views use their own dispatcher if frames are conflated
+    private val dispatcher = MviStateDispatcher(distinctStates, deliveryScheduler)
+    private val viewDispatcher =
+        if (frameConflater != null) MviStateDispatcher(viewObservable, viewDeliveryScheduler) else dispatcher
+    // Dispatchers for view model subscriptions that asked for another scheduler, removed when they have no selections
+    private val dispatchers = HashMap<Scheduler, MviStateDispatcher<S>>()
+    // Deduplicated selections of dispatchers that were already removed, guarded by the dispatchers lock
+    private var releasedDeduplicatedSelections = 0
+
+    // Messages are broadcast to every view that subscribed
+    private val messageCenter = MviMessageCenter(AndroidSchedulers.mainThread())
 
     init {
         disposables.add(stateStore)
+        frameConflater?.let { disposables.add(it) }
+        disposables.add(dispatcher)
+        disposables.add(messageCenter)
+        if (viewDispatcher !== dispatcher) disposables.add(viewDispatcher)
         if (debugMode) {
             Log.d(tag, "Initialized view model $tag")
             Log.d(tag, "Initial state: $initialState")
@@ -53,6 +98,44 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
     internal val state: S
         get() = stateStore.state
 
+    /**
+     * Work counters for the state store backing this view model, if the store records them.
+     */
+    val stateStoreMetrics: MviStateStoreMetrics?
+        get() = stateStore.metrics
+
+    /**
+     * Number of select subscriptions that reused the selection of an earlier subscription with the same selectors
+     * instead of reading and comparing the properties again.
+     */
+    val deduplicatedSelections: Int
+        get() {
+            var count = dispatcher.deduplicatedSelections
+            if (viewDispatcher !== dispatcher) count += viewDispatcher.deduplicatedSelections
+            synchronized(dispatchers) {
+                count += releasedDeduplicatedSelections
+                dispatchers.values.forEach { count += it.deduplicatedSelections }
+            }
+            return count
+        }
+
+    /**
+     * Incremented every time the state store publishes a new state instance.
+     */
+    val stateVersion: Long
+        get() = stateStore.version
+
+    /**
+     * Delivered and dropped state counters if this view model was created with frame aligned delivery.
+     */
+    val frameDeliveryMetrics: MviFrameDeliveryMetrics? = frameConflater?.let { MviFrameDeliveryMetrics(it) }
+
+    /**
+     * Counters for messages that were discarded by their [MviMessagePolicy] or replaced by a newer message with the
+     * same coalesce key before a view received them.
+     */
+    val messageMetrics = MviMessageMetrics(messageCenter)
+
     /**
      * Call this to mutate the current state by providing a state reducer. This method is typically invoked by creating
      * a copy of the state class inside the reducer block. The reducer block receives the current state class as the
@@ -63,15 +146,18 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
      *      copy(property = newValue)
      * }
      * ```
+     *
+     * Reducers that respond to user input can pass [MviReducerPriority.INTERACTIVE] so they are folded before any
+     * background reducers that are still queued, for example an expensive re-sort of a large list.
      */
-    protected fun setState(reducer: S.() -> S) {
+    protected fun setState(priority: MviReducerPriority = MviReducerPriority.BACKGROUND, reducer: S.() -> S) {
         if (stateStore.isDisposed) {
             throw IllegalStateException("Attempted to update state after state store was disposed. Are you calling setState from onCleared()?")
         }
         if (debugMode) {
             // Must use `set` to ensure the validated state is the same as the actual state used in reducer
-            // Do not use `get` since `getState` queue has lower priority and the validated state would be the state after reduced
-            stateStore.set {
+            // Do not use `get` since other reducers may be folded between the get block and this reducer
+            stateStore.set(priority) {
                 val firstState = this.reducer()
                 val secondState = this.reducer()
 
@@ -85,7 +171,7 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
                 firstState
             }
         } else {
-            stateStore.set(reducer)
+            stateStore.set(priority, reducer)
         }
     }
 
@@ -103,8 +189,10 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
 
     /**
      * Access the current ViewModel state. Takes a block of code that will be run after all current pending state
-     * updates are processed. If the state store has been disposed this block of code will be executed synchronously
-     * on whatever thread it was called from without waiting for state updates.
+     * updates are processed. State updates queued after this call run after the block, even if they were queued before
+     * the block started running, unless they are [MviReducerPriority.INTERACTIVE]. If the state store has been disposed
+     * this block of code will be executed synchronously on whatever thread it was called from without waiting for
+     * state updates.
      */
     protected fun withState(block: (state: S) -> Unit) {
         if (stateStore.isDisposed) {
@@ -115,10 +203,22 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
     }
 
     /**
-     * Enqueue a single message to be sent to the view.
+     * Enqueue a single message to be sent to every view that subscribed to messages. Messages are kept while the views
+     * are stopped and delivered in order when they are started again, the [policy] limits how many messages are kept
+     * and for how long.
+     *
+     * Messages are only delivered to views that subscribed to their type, or to all messages. A message is discarded
+     * right away if views subscribed but none of them handles it.
+     *
+     * Messages where only the latest one matters, like scrolling to a position, can pass a [coalesceKey]. The message
+     * then replaces a buffered message with the same key that no view received yet and takes over its position.
      */
-    protected fun sendMessage(message: Any) {
-        messageQueue.onNext(message)
+    protected fun sendMessage(
+        message: Any,
+        coalesceKey: Any? = null,
+        policy: MviMessagePolicy = MviMessagePolicy.UNBOUNDED
+    ) {
+        messageCenter.send(message, coalesceKey, policy)
     }
 
     /**
@@ -189,19 +289,53 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
             .disposeOnClear()
     }
 
+    /**
+     * Receive the events emitted on the [bus] for the [key] until the returned disposable is disposed or this view
+     * model is cleared. Events are delivered on the thread that emitted them.
+     */
+    protected fun <K : Any, E : Any> subscribeEvents(
+        bus: MviEventBus<K, E>,
+        key: K,
+        subscriber: (E) -> Unit
+    ): Disposable {
+        val registration = bus.register(key, subscriber).disposeOnClear()
+        return Disposables.fromAction { disposables.remove(registration) }
+    }
+
     /**
      * For ViewModels that want to subscribe to itself.
      */
     protected fun subscribe(subscriber: (S) -> Unit) =
-        stateStore.observable.subscribeLifecycle(null, subscriber)
+        subscribeSelection(null, STATE_KEY, ::stateSelection, null, subscriber)
+
+    /**
+     * Subscribe to state changes on another scheduler than the main thread. Every select subscribe method has an
+     * overload that takes a scheduler before the subscriber as well.
+     *
+     * @param deliverOn Scheduler the subscriber is called on. Pass [Schedulers.trampoline] to be called inline on the
+     * thread that processes the state store, which avoids a round trip through the main thread for subscribers that
+     * only start background work or set state.
+     */
+    protected fun subscribe(deliverOn: Scheduler, subscriber: (S) -> Unit) =
+        subscribeSelection(null, STATE_KEY, ::stateSelection, deliverOn, subscriber)
 
     @RestrictTo(RestrictTo.Scope.LIBRARY)
     fun subscribe(owner: LifecycleOwner, subscriber: (S) -> Unit) =
-        stateStore.observable.subscribeLifecycle(owner, subscriber)
+        subscribeSelection(owner, STATE_KEY, ::stateSelection, null, subscriber)
 
     @RestrictTo(RestrictTo.Scope.LIBRARY)
     fun subscribeMessages(owner: LifecycleOwner, subscriber: (Any) -> Unit) {
-        MviMessageObserver(owner, messageQueue.observeOn(AndroidSchedulers.mainThread()), subscriber) {
+        subscribeMessages(owner, Any::class.java, subscriber)
+    }
+
+    /**
+     * Subscribe to messages of a single type. Messages are routed by their class, so a message is only posted to the
+     * main thread if a view subscribed to its type. Messages no view handles yet are kept until a view subscribes to
+     * their type.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <T : Any> subscribeMessages(owner: LifecycleOwner, type: Class<T>, subscriber: (T) -> Unit) {
+        MviMessageObserver(owner, messageCenter.subscribe(type, subscriber)) {
             disposables.remove(it)
         }.disposeOnClear()
     }
@@ -214,12 +348,28 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
         subscriber: (P) -> Unit
     ) = selectSubscribeInternal(null, prop1, subscriber)
 
+    /**
+     * @param deliverOn Scheduler the subscriber is called on, see [subscribe].
+     */
+    protected fun <P> selectSubscribe(
+        prop1: KProperty1<S, P>,
+        deliverOn: Scheduler,
+        subscriber: (P) -> Unit
+    ) = selectSubscribeInternal(null, prop1, subscriber, deliverOn)
+
     protected fun <P, V> selectSubscribe(
         prop1: KProperty1<S, P>,
         mapper: (P) -> V?,
         subscriber: (V) -> Unit
     ) = selectSubscribeInternal(null, prop1, mapper, subscriber)
 
+    protected fun <P, V> selectSubscribe(
+        prop1: KProperty1<S, P>,
+        mapper: (P) -> V?,
+        deliverOn: Scheduler,
+        subscriber: (V) -> Unit
+    ) = selectSubscribeInternal(null, prop1, mapper, subscriber, deliverOn)
+
     @RestrictTo(RestrictTo.Scope.LIBRARY)
     fun <P, V> selectSubscribe(
         owner: LifecycleOwner,
@@ -235,26 +385,164 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
         subscriber: (P) -> Unit
     ) = selectSubscribeInternal(owner, prop1, subscriber)
 
+    /**
+     * Subscribe to state changes for a single property read by generated selectors, which do not use reflection.
+     */
+    protected fun <P> selectSubscribe(
+        selector1: MviSelector<S, P>,
+        subscriber: (P) -> Unit
+    ) = selectSubscribeInternal(null, selector1, subscriber)
+
+    protected fun <P> selectSubscribe(
+        selector1: MviSelector<S, P>,
+        deliverOn: Scheduler,
+        subscriber: (P) -> Unit
+    ) = selectSubscribeInternal(null, selector1, subscriber, deliverOn)
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P> selectSubscribe(
+        owner: LifecycleOwner,
+        selector1: MviSelector<S, P>,
+        subscriber: (P) -> Unit
+    ) = selectSubscribeInternal(owner, selector1, subscriber)
+
     private fun <P> selectSubscribeInternal(
         owner: LifecycleOwner?,
-        prop1: KProperty1<S, P>,
-        subscriber: (P) -> Unit
-    ) = stateStore.observable
-        .map { MviTuple1(prop1.get(it)) }
-        .distinctUntilChanged()
-        .subscribeLifecycle(owner) { (p) -> subscriber(p) }
+        prop1: (S) -> P,
+        subscriber: (P) -> Unit,
+        deliverOn: Scheduler? = null
+    ) = subscribeSelection(
+        owner,
+        SelectionKey(listOf(prop1)),
+        { MviPropertySelection1(prop1, byReference) },
+        deliverOn
+    ) { (p) -> subscriber(p) }
 
     private fun <P, V> selectSubscribeInternal(
         owner: LifecycleOwner?,
-        prop1: KProperty1<S, P>,
+        prop1: (S) -> P,
         mapper: (P) -> V?,
-        subscriber: (V) -> Unit
-    ) = stateStore.observable
-        .map { MviTuple1(prop1.get(it)) }
-        .map { (p) -> MviTuple1(mapper(p)) }
-        .filter { (v) -> v != null }
-        .distinctUntilChanged()
-        .subscribeLifecycle(owner) { (p) -> subscriber(p!!) }
+        subscriber: (V) -> Unit,
+        deliverOn: Scheduler? = null
+    ) = subscribeSelection(owner, SelectionKey(listOf(prop1), mapper), {
+        // Mapped values are usually new instances so they are always compared with equals
+        MviMappedSelection<S, V>({ mapper(prop1(it)) }, { previous, current -> previous == current })
+    }, deliverOn, subscriber)
+
+    /**
+     * Declare a value computed from a single property or selector. The computation runs on the store thread and is
+     * only repeated when the input changed, the result can be subscribed to like any other property:
+     *
+     * ```
+     * val visibleItems = derivedSelector(ListState::items) { items ->
+     *     items.filter { it.visible }.sortedBy { it.name }
+     * }
+     *
+     * viewModel.selectSubscribe(viewModel.visibleItems) { items -> adapter.submitList(items) }
+     * ```
+     *
+     * Declare derived selectors once as properties of the view model, the cache belongs to the selector instance.
+     * With frame aligned delivery the values are still computed on the store thread before the state is handed to the
+     * main thread, see [MviDerivedSelector].
+     */
+    protected fun <P1, R> derivedSelector(
+        prop1: (S) -> P1,
+        name: String = "derived",
+        compute: (P1) -> R
+    ): MviSelector<S, R> {
+        @Suppress("UNCHECKED_CAST")
+        return registerDerivedSelector(
+            MviDerivedSelector(name, arrayOf<(S) -> Any?>(prop1), byReference) { inputs -> compute(inputs[0] as P1) }
+        )
+    }
+
+    /**
+     * Declare a value computed from two properties or selectors that is only recomputed when one of them changed.
+     */
+    protected fun <P1, P2, R> derivedSelector(
+        prop1: (S) -> P1,
+        prop2: (S) -> P2,
+        name: String = "derived",
+        compute: (P1, P2) -> R
+    ): MviSelector<S, R> {
+        @Suppress("UNCHECKED_CAST")
+        return registerDerivedSelector(
+            MviDerivedSelector(name, arrayOf<(S) -> Any?>(prop1, prop2), byReference) { inputs ->
+                compute(inputs[0] as P1, inputs[1] as P2)
+            }
+        )
+    }
+
+    /**
+     * Declare a value computed from three properties or selectors that is only recomputed when one of them changed.
+     */
+    protected fun <P1, P2, P3, R> derivedSelector(
+        prop1: (S) -> P1,
+        prop2: (S) -> P2,
+        prop3: (S) -> P3,
+        name: String = "derived",
+        compute: (P1, P2, P3) -> R
+    ): MviSelector<S, R> {
+        @Suppress("UNCHECKED_CAST")
+        return registerDerivedSelector(
+            MviDerivedSelector(name, arrayOf<(S) -> Any?>(prop1, prop2, prop3), byReference) { inputs ->
+                compute(inputs[0] as P1, inputs[1] as P2, inputs[2] as P3)
+            }
+        )
+    }
+
+    /**
+     * Only needed with frame aligned delivery, otherwise views evaluate their selections on the store thread anyway.
+     */
+    private fun <R> registerDerivedSelector(selector: MviDerivedSelector<S, R>): MviSelector<S, R> {
+        if (frameConflater != null) {
+            derivedSelectors.add(selector)
+        }
+        return selector
+    }
+
+    /**
+     * States as a [Flow], filtered by the change detection of this view model like the states delivered to
+     * subscribers: distinct states for [MviChangeDetection.EQUALITY] and every new instance for
+     * [MviChangeDetection.REFERENCE]. Collecting it does not require any Rx subscriptions when the view model uses
+     * [MviStateStoreFactory.STATE_FLOW], other stores are bridged to a flow.
+     */
+    val stateFlow: Flow<S>
+        get() = when (changeDetection) {
+            MviChangeDetection.EQUALITY -> stateStore.flow.distinctUntilChanged()
+            MviChangeDetection.REFERENCE -> stateStore.flow
+        }
+
+    /**
+     * Flow of the distinct values of a single property, the coroutine counterpart of `selectSubscribe`.
+     */
+    fun <P> selectFlow(prop1: KProperty1<S, P>): Flow<P> =
+        stateStore.flow
+            .map { prop1(it) }
+            .distinctUntilChanged()
+
+    /**
+     * Flow of the distinct values of two properties.
+     */
+    fun <P1, P2> selectFlow(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>
+    ): Flow<Pair<P1, P2>> =
+        stateStore.flow
+            .map { Pair(prop1(it), prop2(it)) }
+            .distinctUntilChanged()
+
+    /**
+     * Flow of the distinct values of three properties.
+     */
+    fun <P1, P2, P3> selectFlow(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>
+    ): Flow<Triple<P1, P2, P3>> =
+        stateStore.flow
+            .map { Triple(prop1(it), prop2(it), prop3(it)) }
+            .distinctUntilChanged()
 
     /**
      * Subscribe to changes in an async property. There are optional parameters for onSuccess
@@ -279,13 +567,13 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
         asyncProp: KProperty1<S, Async<T>>,
         onFail: ((Throwable) -> Unit)? = null,
         onSuccess: ((T) -> Unit)? = null
-    ) = selectSubscribeInternal(owner, asyncProp) {
+    ) = selectSubscribeInternal(owner, asyncProp, subscriber = {
         if (onSuccess != null && it is Success) {
             onSuccess(it())
         } else if (onFail != null && it is Fail) {
             onFail(it.error)
         }
-    }
+    })
 
     /**
      * Subscribe to state changes for two properties.
@@ -296,6 +584,13 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
         subscriber: (P1, P2) -> Unit
     ) = selectSubscribeInternal(null, prop1, prop2, subscriber)
 
+    protected fun <P1, P2> selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2) -> Unit
+    ) = selectSubscribeInternal(null, prop1, prop2, subscriber, deliverOn)
+
     @RestrictTo(RestrictTo.Scope.LIBRARY)
     fun <P1, P2> selectSubscribe(
         owner: LifecycleOwner,
@@ -304,15 +599,42 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
         subscriber: (P1, P2) -> Unit
     ) = selectSubscribeInternal(owner, prop1, prop2, subscriber)
 
+    /**
+     * Subscribe to state changes for two properties read by generated selectors, which do not use reflection.
+     */
+    protected fun <P1, P2> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        subscriber: (P1, P2) -> Unit
+    ) = selectSubscribeInternal(null, selector1, selector2, subscriber)
+
+    protected fun <P1, P2> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2) -> Unit
+    ) = selectSubscribeInternal(null, selector1, selector2, subscriber, deliverOn)
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P1, P2> selectSubscribe(
+        owner: LifecycleOwner,
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        subscriber: (P1, P2) -> Unit
+    ) = selectSubscribeInternal(owner, selector1, selector2, subscriber)
+
     private fun <P1, P2> selectSubscribeInternal(
         owner: LifecycleOwner?,
-        prop1: KProperty1<S, P1>,
-        prop2: KProperty1<S, P2>,
-        subscriber: (P1, P2) -> Unit
-    ) = stateStore.observable
-        .map { MviTuple2(prop1.get(it), prop2.get(it)) }
-        .distinctUntilChanged()
-        .subscribeLifecycle(owner) { (p1, p2) -> subscriber(p1, p2) }
+        prop1: (S) -> P1,
+        prop2: (S) -> P2,
+        subscriber: (P1, P2) -> Unit,
+        deliverOn: Scheduler? = null
+    ) = subscribeSelection(
+        owner,
+        SelectionKey(listOf(prop1, prop2)),
+        { MviPropertySelection2(prop1, prop2, byReference) },
+        deliverOn
+    ) { (p1, p2) -> subscriber(p1, p2) }
 
     /**
      * Subscribe to state changes for three properties.
@@ -324,6 +646,14 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
         subscriber: (P1, P2, P3) -> Unit
     ) = selectSubscribeInternal(null, prop1, prop2, prop3, subscriber)
 
+    protected fun <P1, P2, P3> selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3) -> Unit
+    ) = selectSubscribeInternal(null, prop1, prop2, prop3, subscriber, deliverOn)
+
     @RestrictTo(RestrictTo.Scope.LIBRARY)
     fun <P1, P2, P3> selectSubscribe(
         owner: LifecycleOwner,
@@ -333,16 +663,46 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
         subscriber: (P1, P2, P3) -> Unit
     ) = selectSubscribeInternal(owner, prop1, prop2, prop3, subscriber)
 
+    /**
+     * Subscribe to state changes for three properties read by generated selectors, which do not use reflection.
+     */
+    protected fun <P1, P2, P3> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        subscriber: (P1, P2, P3) -> Unit
+    ) = selectSubscribeInternal(null, selector1, selector2, selector3, subscriber)
+
+    protected fun <P1, P2, P3> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3) -> Unit
+    ) = selectSubscribeInternal(null, selector1, selector2, selector3, subscriber, deliverOn)
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P1, P2, P3> selectSubscribe(
+        owner: LifecycleOwner,
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        subscriber: (P1, P2, P3) -> Unit
+    ) = selectSubscribeInternal(owner, selector1, selector2, selector3, subscriber)
+
     private fun <P1, P2, P3> selectSubscribeInternal(
         owner: LifecycleOwner?,
-        prop1: KProperty1<S, P1>,
-        prop2: KProperty1<S, P2>,
-        prop3: KProperty1<S, P3>,
-        subscriber: (P1, P2, P3) -> Unit
-    ) = stateStore.observable
-        .map { MviTuple3(prop1.get(it), prop2.get(it), prop3.get(it)) }
-        .distinctUntilChanged()
-        .subscribeLifecycle(owner) { (p1, p2, p3) -> subscriber(p1, p2, p3) }
+        prop1: (S) -> P1,
+        prop2: (S) -> P2,
+        prop3: (S) -> P3,
+        subscriber: (P1, P2, P3) -> Unit,
+        deliverOn: Scheduler? = null
+    ) = subscribeSelection(
+        owner,
+        SelectionKey(listOf(prop1, prop2, prop3)),
+        { MviPropertySelection3(prop1, prop2, prop3, byReference) },
+        deliverOn
+    ) { (p1, p2, p3) -> subscriber(p1, p2, p3) }
 
     /**
      * Subscribe to state changes for four properties.
@@ -355,6 +715,15 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
         subscriber: (P1, P2, P3, P4) -> Unit
     ) = selectSubscribeInternal(null, prop1, prop2, prop3, prop4, subscriber)
 
+    protected fun <P1, P2, P3, P4> selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3, P4) -> Unit
+    ) = selectSubscribeInternal(null, prop1, prop2, prop3, prop4, subscriber, deliverOn)
+
     @RestrictTo(RestrictTo.Scope.LIBRARY)
     fun <P1, P2, P3, P4> selectSubscribe(
         owner: LifecycleOwner,
@@ -365,37 +734,556 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
         subscriber: (P1, P2, P3, P4) -> Unit
     ) = selectSubscribeInternal(owner, prop1, prop2, prop3, prop4, subscriber)
 
+    /**
+     * Subscribe to state changes for four properties read by generated selectors, which do not use reflection.
+     */
+    protected fun <P1, P2, P3, P4> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        subscriber: (P1, P2, P3, P4) -> Unit
+    ) = selectSubscribeInternal(null, selector1, selector2, selector3, selector4, subscriber)
+
+    protected fun <P1, P2, P3, P4> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3, P4) -> Unit
+    ) = selectSubscribeInternal(null, selector1, selector2, selector3, selector4, subscriber, deliverOn)
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P1, P2, P3, P4> selectSubscribe(
+        owner: LifecycleOwner,
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        subscriber: (P1, P2, P3, P4) -> Unit
+    ) = selectSubscribeInternal(owner, selector1, selector2, selector3, selector4, subscriber)
+
     private fun <P1, P2, P3, P4> selectSubscribeInternal(
         owner: LifecycleOwner?,
+        prop1: (S) -> P1,
+        prop2: (S) -> P2,
+        prop3: (S) -> P3,
+        prop4: (S) -> P4,
+        subscriber: (P1, P2, P3, P4) -> Unit,
+        deliverOn: Scheduler? = null
+    ) = subscribeSelection(
+        owner,
+        SelectionKey(listOf(prop1, prop2, prop3, prop4)),
+        { MviPropertySelection4(prop1, prop2, prop3, prop4, byReference) },
+        deliverOn
+    ) { (p1, p2, p3, p4) -> subscriber(p1, p2, p3, p4) }
+
+    /**
+     * Subscribe to state changes for five properties.
+     */
+    protected fun <P1, P2, P3, P4, P5> selectSubscribe(
         prop1: KProperty1<S, P1>,
         prop2: KProperty1<S, P2>,
         prop3: KProperty1<S, P3>,
         prop4: KProperty1<S, P4>,
-        subscriber: (P1, P2, P3, P4) -> Unit
-    ) = stateStore.observable
-        .map { MviTuple4(prop1.get(it), prop2.get(it), prop3.get(it), prop4.get(it)) }
-        .distinctUntilChanged()
-        .subscribeLifecycle(owner) { (p1, p2, p3, p4) -> subscriber(p1, p2, p3, p4) }
+        prop5: KProperty1<S, P5>,
+        subscriber: (P1, P2, P3, P4, P5) -> Unit
+    ) = selectSubscribeInternal(null, prop1, prop2, prop3, prop4, prop5, subscriber)
+
+    protected fun <P1, P2, P3, P4, P5> selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3, P4, P5) -> Unit
+    ) = selectSubscribeInternal(null, prop1, prop2, prop3, prop4, prop5, subscriber, deliverOn)
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P1, P2, P3, P4, P5> selectSubscribe(
+        owner: LifecycleOwner,
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        subscriber: (P1, P2, P3, P4, P5) -> Unit
+    ) = selectSubscribeInternal(owner, prop1, prop2, prop3, prop4, prop5, subscriber)
+
+    /**
+     * Subscribe to state changes for five properties read by generated selectors, which do not use reflection.
+     */
+    protected fun <P1, P2, P3, P4, P5> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        subscriber: (P1, P2, P3, P4, P5) -> Unit
+    ) = selectSubscribeInternal(null, selector1, selector2, selector3, selector4, selector5, subscriber)
+
+    protected fun <P1, P2, P3, P4, P5> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3, P4, P5) -> Unit
+    ) = selectSubscribeInternal(null, selector1, selector2, selector3, selector4, selector5, subscriber, deliverOn)
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P1, P2, P3, P4, P5> selectSubscribe(
+        owner: LifecycleOwner,
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        subscriber: (P1, P2, P3, P4, P5) -> Unit
+    ) = selectSubscribeInternal(owner, selector1, selector2, selector3, selector4, selector5, subscriber)
+
+    private fun <P1, P2, P3, P4, P5> selectSubscribeInternal(
+        owner: LifecycleOwner?,
+        prop1: (S) -> P1,
+        prop2: (S) -> P2,
+        prop3: (S) -> P3,
+        prop4: (S) -> P4,
+        prop5: (S) -> P5,
+        subscriber: (P1, P2, P3, P4, P5) -> Unit,
+        deliverOn: Scheduler? = null
+    ) = subscribeSelection(
+        owner,
+        SelectionKey(listOf(prop1, prop2, prop3, prop4, prop5)),
+        { MviPropertySelection5(prop1, prop2, prop3, prop4, prop5, byReference) },
+        deliverOn
+    ) { (p1, p2, p3, p4, p5) -> subscriber(p1, p2, p3, p4, p5) }
+
+    /**
+     * Subscribe to state changes for six properties.
+     */
+    protected fun <P1, P2, P3, P4, P5, P6> selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        subscriber: (P1, P2, P3, P4, P5, P6) -> Unit
+    ) = selectSubscribeInternal(null, prop1, prop2, prop3, prop4, prop5, prop6, subscriber)
+
+    protected fun <P1, P2, P3, P4, P5, P6> selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3, P4, P5, P6) -> Unit
+    ) = selectSubscribeInternal(null, prop1, prop2, prop3, prop4, prop5, prop6, subscriber, deliverOn)
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P1, P2, P3, P4, P5, P6> selectSubscribe(
+        owner: LifecycleOwner,
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        subscriber: (P1, P2, P3, P4, P5, P6) -> Unit
+    ) = selectSubscribeInternal(owner, prop1, prop2, prop3, prop4, prop5, prop6, subscriber)
+
+    /**
+     * Subscribe to state changes for six properties read by generated selectors, which do not use reflection.
+     */
+    protected fun <P1, P2, P3, P4, P5, P6> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        subscriber: (P1, P2, P3, P4, P5, P6) -> Unit
+    ) = selectSubscribeInternal(
+        null, selector1, selector2, selector3, selector4, selector5, selector6, subscriber
+    )
+
+    protected fun <P1, P2, P3, P4, P5, P6> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3, P4, P5, P6) -> Unit
+    ) = selectSubscribeInternal(
+        null, selector1, selector2, selector3, selector4, selector5, selector6, subscriber, deliverOn
+    )
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P1, P2, P3, P4, P5, P6> selectSubscribe(
+        owner: LifecycleOwner,
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        subscriber: (P1, P2, P3, P4, P5, P6) -> Unit
+    ) = selectSubscribeInternal(owner, selector1, selector2, selector3, selector4, selector5, selector6, subscriber)
+
+    private fun <P1, P2, P3, P4, P5, P6> selectSubscribeInternal(
+        owner: LifecycleOwner?,
+        prop1: (S) -> P1,
+        prop2: (S) -> P2,
+        prop3: (S) -> P3,
+        prop4: (S) -> P4,
+        prop5: (S) -> P5,
+        prop6: (S) -> P6,
+        subscriber: (P1, P2, P3, P4, P5, P6) -> Unit,
+        deliverOn: Scheduler? = null
+    ) = subscribeSelection(
+        owner,
+        SelectionKey(listOf(prop1, prop2, prop3, prop4, prop5, prop6)),
+        { MviPropertySelection6(prop1, prop2, prop3, prop4, prop5, prop6, byReference) },
+        deliverOn
+    ) { (p1, p2, p3, p4, p5, p6) -> subscriber(p1, p2, p3, p4, p5, p6) }
+
+    /**
+     * Subscribe to state changes for seven properties.
+     */
+    protected fun <P1, P2, P3, P4, P5, P6, P7> selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        prop7: KProperty1<S, P7>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7) -> Unit
+    ) = selectSubscribeInternal(null, prop1, prop2, prop3, prop4, prop5, prop6, prop7, subscriber)
 
-    private fun <T> Observable<T>.subscribeLifecycle(
-        lifecycleOwner: LifecycleOwner? = null,
+    protected fun <P1, P2, P3, P4, P5, P6, P7> selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        prop7: KProperty1<S, P7>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7) -> Unit
+    ) = selectSubscribeInternal(null, prop1, prop2, prop3, prop4, prop5, prop6, prop7, subscriber, deliverOn)
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P1, P2, P3, P4, P5, P6, P7> selectSubscribe(
+        owner: LifecycleOwner,
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        prop7: KProperty1<S, P7>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7) -> Unit
+    ) = selectSubscribeInternal(owner, prop1, prop2, prop3, prop4, prop5, prop6, prop7, subscriber)
+
+    /**
+     * Subscribe to state changes for seven properties read by generated selectors, which do not use reflection.
+     */
+    protected fun <P1, P2, P3, P4, P5, P6, P7> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        selector7: MviSelector<S, P7>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7) -> Unit
+    ) = selectSubscribeInternal(
+        null, selector1, selector2, selector3, selector4, selector5, selector6, selector7, subscriber
+    )
+
+    protected fun <P1, P2, P3, P4, P5, P6, P7> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        selector7: MviSelector<S, P7>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7) -> Unit
+    ) = selectSubscribeInternal(
+        null, selector1, selector2, selector3, selector4, selector5, selector6, selector7, subscriber, deliverOn
+    )
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P1, P2, P3, P4, P5, P6, P7> selectSubscribe(
+        owner: LifecycleOwner,
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        selector7: MviSelector<S, P7>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7) -> Unit
+    ) = selectSubscribeInternal(
+        owner, selector1, selector2, selector3, selector4, selector5, selector6, selector7, subscriber
+    )
+
+    private fun <P1, P2, P3, P4, P5, P6, P7> selectSubscribeInternal(
+        owner: LifecycleOwner?,
+        prop1: (S) -> P1,
+        prop2: (S) -> P2,
+        prop3: (S) -> P3,
+        prop4: (S) -> P4,
+        prop5: (S) -> P5,
+        prop6: (S) -> P6,
+        prop7: (S) -> P7,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7) -> Unit,
+        deliverOn: Scheduler? = null
+    ) = subscribeSelection(
+        owner,
+        SelectionKey(listOf(prop1, prop2, prop3, prop4, prop5, prop6, prop7)),
+        { MviPropertySelection7(prop1, prop2, prop3, prop4, prop5, prop6, prop7, byReference) },
+        deliverOn
+    ) { (p1, p2, p3, p4, p5, p6, p7) -> subscriber(p1, p2, p3, p4, p5, p6, p7) }
+
+    /**
+     * Subscribe to state changes for eight properties.
+     */
+    protected fun <P1, P2, P3, P4, P5, P6, P7, P8> selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        prop7: KProperty1<S, P7>,
+        prop8: KProperty1<S, P8>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7, P8) -> Unit
+    ) = selectSubscribeInternal(null, prop1, prop2, prop3, prop4, prop5, prop6, prop7, prop8, subscriber)
+
+    protected fun <P1, P2, P3, P4, P5, P6, P7, P8> selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        prop7: KProperty1<S, P7>,
+        prop8: KProperty1<S, P8>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7, P8) -> Unit
+    ) = selectSubscribeInternal(null, prop1, prop2, prop3, prop4, prop5, prop6, prop7, prop8, subscriber, deliverOn)
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P1, P2, P3, P4, P5, P6, P7, P8> selectSubscribe(
+        owner: LifecycleOwner,
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        prop7: KProperty1<S, P7>,
+        prop8: KProperty1<S, P8>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7, P8) -> Unit
+    ) = selectSubscribeInternal(owner, prop1, prop2, prop3, prop4, prop5, prop6, prop7, prop8, subscriber)
+
+    /**
+     * Subscribe to state changes for eight properties read by generated selectors, which do not use reflection.
+     */
+    protected fun <P1, P2, P3, P4, P5, P6, P7, P8> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        selector7: MviSelector<S, P7>,
+        selector8: MviSelector<S, P8>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7, P8) -> Unit
+    ) = selectSubscribeInternal(
+        null, selector1, selector2, selector3, selector4, selector5, selector6, selector7, selector8, subscriber
+    )
+
+    protected fun <P1, P2, P3, P4, P5, P6, P7, P8> selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        selector7: MviSelector<S, P7>,
+        selector8: MviSelector<S, P8>,
+        deliverOn: Scheduler,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7, P8) -> Unit
+    ) = selectSubscribeInternal(
+        null, selector1, selector2, selector3, selector4, selector5, selector6, selector7, selector8, subscriber,
+        deliverOn
+    )
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    fun <P1, P2, P3, P4, P5, P6, P7, P8> selectSubscribe(
+        owner: LifecycleOwner,
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        selector7: MviSelector<S, P7>,
+        selector8: MviSelector<S, P8>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7, P8) -> Unit
+    ) = selectSubscribeInternal(
+        owner, selector1, selector2, selector3, selector4, selector5, selector6, selector7, selector8, subscriber
+    )
+
+    private fun <P1, P2, P3, P4, P5, P6, P7, P8> selectSubscribeInternal(
+        owner: LifecycleOwner?,
+        prop1: (S) -> P1,
+        prop2: (S) -> P2,
+        prop3: (S) -> P3,
+        prop4: (S) -> P4,
+        prop5: (S) -> P5,
+        prop6: (S) -> P6,
+        prop7: (S) -> P7,
+        prop8: (S) -> P8,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7, P8) -> Unit,
+        deliverOn: Scheduler? = null
+    ) = subscribeSelection(
+        owner,
+        SelectionKey(listOf(prop1, prop2, prop3, prop4, prop5, prop6, prop7, prop8)),
+        { MviPropertySelection8(prop1, prop2, prop3, prop4, prop5, prop6, prop7, prop8, byReference) },
+        deliverOn
+    ) { (p1, p2, p3, p4, p5, p6, p7, p8) -> subscriber(p1, p2, p3, p4, p5, p6, p7, p8) }
+
+    /**
+     * Subscribe to a selection through the dispatcher for the owner. Subscriptions with the same key share one
+     * selection, so the properties are read and compared once per state no matter how many subscribers there are.
+     * Property references are equal when they refer to the same property and generated selectors are singletons, a
+     * mapper only matches itself which is the case for lambdas that do not capture anything.
+     *
+     * Views are always notified on the main thread, [deliverOn] only applies to subscriptions of the view model. Views
+     * pass an [MviSubscriptionOwner] when the subscription chooses whether it is detached while stopped, other owners
+     * follow [Mvi.detachStoppedSubscribers].
+     */
+    private fun <T> subscribeSelection(
+        subscriptionOwner: LifecycleOwner?,
+        key: Any,
+        createSelection: () -> MviSelection<S, T>,
+        deliverOn: Scheduler?,
         subscriber: (T) -> Unit
     ): Disposable {
-        if (lifecycleOwner == null) {
-            return observeOn(AndroidSchedulers.mainThread())
-                .subscribe(subscriber)
-                .disposeOnClear()
+        val detach = (subscriptionOwner as? MviSubscriptionOwner)?.detachWhenStopped ?: Mvi.detachStoppedSubscribers
+        val owner = (subscriptionOwner as? MviSubscriptionOwner)?.owner ?: subscriptionOwner
+        val listener = Mvi.subscriptionListener
+            ?: return subscribeObserver(owner, detach, key, createSelection, deliverOn, subscriber) {
+                disposables.remove(it)
+            }.disposeOnClear()
+
+        val subscription = MviInstrumentedSubscription(this, owner, key.toString(), listener, subscriber)
+        subscription.upstream = subscribeObserver(
+            owner, detach, key, createSelection, deliverOn, subscription::deliver
+        ) { disposables.remove(subscription) }
+        return subscription.disposeOnClear()
+    }
+
+    private fun <T> subscribeObserver(
+        owner: LifecycleOwner?,
+        detachWhenStopped: Boolean,
+        key: Any,
+        createSelection: () -> MviSelection<S, T>,
+        deliverOn: Scheduler?,
+        subscriber: (T) -> Unit,
+        destroyCallback: (Disposable) -> Unit
+    ): Disposable {
+        if (owner == null) {
+            val observer = LambdaObserver<T>(
+                Consumer { subscriber(it) },
+                Functions.ON_ERROR_MISSING,
+                Functions.EMPTY_ACTION,
+                Functions.emptyConsumer()
+            )
+            subscribeDispatcher(deliverOn ?: deliveryScheduler, key, createSelection, observer)
+            return observer
+        }
+
+        if (detachWhenStopped) {
+            return MviColdLifecycleObserver(
+                owner,
+                connect = { viewDispatcher.subscribe(key, createSelection, it) },
+                onNext = subscriber,
+                destroyCallback = destroyCallback
+            )
         }
 
         val lifecycleAwareObserver = MviLifecycleAwareObserver(
-            lifecycleOwner,
+            owner,
             alwaysDeliverLastValueWhenUnlocked = true,
             onNext = Consumer<T> { subscriber(it) },
-            destroyCallback = { disposables.remove(it) }
+            destroyCallback = destroyCallback
         )
-        return observeOn(AndroidSchedulers.mainThread())
-            .subscribeWith(lifecycleAwareObserver)
-            .disposeOnClear()
+        viewDispatcher.subscribe(key, createSelection, lifecycleAwareObserver)
+        return lifecycleAwareObserver
+    }
+
+    /**
+     * Subscribe through the dispatcher for the scheduler. Each delivery scheduler gets its own dispatcher so
+     * subscribers that share a scheduler are still notified by a single task per state. Dispatchers for other
+     * schedulers than the main thread are created on demand and released again once their last subscription was
+     * disposed, the subscription is made while holding the map lock so a dispatcher is never released between looking
+     * it up and subscribing to it.
+     */
+    private fun <T> subscribeDispatcher(
+        scheduler: Scheduler,
+        key: Any,
+        createSelection: () -> MviSelection<S, T>,
+        observer: LambdaObserver<T>
+    ) {
+        if (scheduler === deliveryScheduler) {
+            dispatcher.subscribe(key, createSelection, observer)
+            return
+        }
+        synchronized(dispatchers) {
+            val dispatcher = dispatchers.getOrPut(scheduler) {
+                MviStateDispatcher(distinctStates, scheduler, ::releaseDispatcher).also { disposables.add(it) }
+            }
+            dispatcher.subscribe(key, createSelection, observer)
+        }
+    }
+
+    private fun releaseDispatcher(dispatcher: MviStateDispatcher<S>) {
+        synchronized(dispatchers) {
+            if (!dispatcher.isIdle || !dispatchers.values.remove(dispatcher)) return
+            releasedDeduplicatedSelections += dispatcher.deduplicatedSelections
+        }
+        disposables.remove(dispatcher)
+    }
+
+    // States are already distinct when they reach the dispatcher
+    private fun stateSelection(): MviSelection<S, S> =
+        MviMappedSelection({ it }, { previous, current -> previous === current })
+
+    private val byReference: Boolean
+        get() = changeDetection == MviChangeDetection.REFERENCE
+
+    private data class SelectionKey(val selectors: List<Any>, val mapper: Any? = null) {
+        override fun toString(): String = selectors.joinToString { selector ->
+            when (selector) {
+                is KProperty1<*, *> -> selector.name
+                is MviSelector<*, *> -> selector.name
+                else -> "selector"
+            }
+        }
     }
 
     /**
@@ -403,7 +1291,7 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
      */
     fun logStateChanges() {
         if (!debugMode) return
-        subscribe { Log.d(tag, "New State: $it") }
+        subscribe(Schedulers.trampoline()) { Log.d(tag, "New State: $it") }
     }
 
     protected fun Disposable.disposeOnClear(): Disposable {
@@ -418,4 +1306,11 @@ abstract class BaseMviViewModel<S : MviState, A : MviArgs>(
     }
 
     override fun toString(): String = "$tag $state"
-}
\ No newline at end of file
+
+    private companion object {
+        // Key of the selection that delivers the whole state
+        val STATE_KEY = object : Any() {
+            override fun toString() = "state"
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.victorrendina.mvi
+
+import android.os.Looper
+import io.reactivex.Scheduler
+import io.reactivex.android.schedulers.AndroidSchedulers
+import io.reactivex.disposables.Disposable
+import io.reactivex.disposables.Disposables
+import java.util.concurrent.TimeUnit
+
+/**
+ * Scheduler that runs work inline when it is scheduled from the main thread without a delay and posts it to the main
+ * thread otherwise. Work that is posted may run after work that is scheduled inline later, so callers that need
+ * ordering must queue their work and drain it, like the state store and `observeOn` do.
+ */
+internal object ImmediateMainThreadScheduler : Scheduler() {
+
+    override fun createWorker(): Worker = ImmediateMainThreadWorker()
+
+    private class ImmediateMainThreadWorker : Worker() {
+
+        private val mainThreadWorker = AndroidSchedulers.mainThread().createWorker()
+
+        @Volatile
+        private var disposed = false
+
+        override fun schedule(run: Runnable, delay: Long, unit: TimeUnit): Disposable {
+            if (disposed) {
+                return Disposables.disposed()
+            }
+            if (delay <= 0 && Looper.myLooper() == Looper.getMainLooper()) {
+                run.run()
+                return Disposables.disposed()
+            }
+            return mainThreadWorker.schedule(run, delay, unit)
+        }
+
+        override fun isDisposed(): Boolean = disposed
+
+        override fun dispose() {
+            disposed = true
+            mainThreadWorker.dispose()
+        }
+    }
+}
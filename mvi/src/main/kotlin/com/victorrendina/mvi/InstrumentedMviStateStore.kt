@@ -0,0 +1,50 @@
+package com.victorrendina.mvi
+
+/**
+ * Decorates another [MviStateStore] and reports how long each reducer and get block took to run. This adds a wrapper
+ * allocation and two clock reads to every call so it is meant for performance builds rather than production.
+ *
+ * @param name Name passed to the listener to identify this store, [MviStateStoreFactory.instrumented] uses the
+ * simple name of the state class.
+ */
+class InstrumentedMviStateStore<S : MviState>(
+    private val delegate: MviStateStore<S>,
+    private val name: String,
+    private val listener: Listener
+) : MviStateStore<S> by delegate {
+
+    interface Listener {
+        /**
+         * Called on the store thread after a reducer has run.
+         */
+        fun onReducer(name: String, durationNanos: Long)
+
+        /**
+         * Called on the store thread after a get block has run.
+         */
+        fun onGetBlock(name: String, durationNanos: Long)
+    }
+
+    override fun set(reducer: S.() -> S) {
+        delegate.set(instrument(reducer))
+    }
+
+    override fun set(priority: MviReducerPriority, reducer: S.() -> S) {
+        delegate.set(priority, instrument(reducer))
+    }
+
+    private fun instrument(reducer: S.() -> S): S.() -> S = {
+        val start = System.nanoTime()
+        val newState = reducer()
+        listener.onReducer(name, System.nanoTime() - start)
+        newState
+    }
+
+    override fun get(block: (S) -> Unit) {
+        delegate.get { state ->
+            val start = System.nanoTime()
+            block(state)
+            listener.onGetBlock(name, System.nanoTime() - start)
+        }
+    }
+}
@@ -1,9 +1,47 @@
 package com.victorrendina.mvi
 
+import java.util.concurrent.TimeUnit
+
 object Mvi {
     /**
      * To provide arguments to a fragment view model add the parcelable class to the bundle under this key. To provide
      * arguments to an activity view model add to the intent bundle under this key.
      */
     const val KEY_ARG = "mvi:arg"
+
+    /**
+     * When enabled, view models created afterwards with the [MviStateStoreFactory.DEFAULT] factory run their state
+     * stores on the [MviStateStorePool] instead of starting a new thread for every view model. Set this once when the
+     * application is created.
+     */
+    @JvmStatic
+    @Volatile
+    var useSharedStorePool: Boolean = false
+
+    /**
+     * When enabled, views stop receiving state updates while they are stopped instead of buffering the last one, so
+     * selections are not evaluated for views that are not visible, for example fragments on the back stack. When a
+     * view is started again it receives the current state, the same value it would have received otherwise. Applies to
+     * subscriptions made afterwards that do not pass their own `detachWhenStopped` to [MviView.subscribe] or
+     * [MviView.selectSubscribe].
+     */
+    @JvmStatic
+    @Volatile
+    var detachStoppedSubscribers: Boolean = false
+
+    /**
+     * When set, subscriptions made afterwards report their live counts and the time spent in every subscriber call to
+     * this listener. Timing adds two clock reads per delivery so it is meant for debug and performance builds.
+     */
+    @JvmStatic
+    @Volatile
+    var subscriptionListener: MviSubscriptionListener? = null
+
+    /**
+     * Subscriber calls that take longer than this are reported to [MviSubscriptionListener.onFrameBudgetExceeded].
+     * Defaults to one frame at 60 frames per second.
+     */
+    @JvmStatic
+    @Volatile
+    var subscriberFrameBudgetNanos: Long = TimeUnit.MILLISECONDS.toNanos(16)
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.victorrendina.mvi
+
+/**
+ * How a view model decides that a state or a selected set of properties changed before notifying subscribers.
+ */
+enum class MviChangeDetection {
+    /**
+     * Values are compared with `equals`. For a data class state holding large collections this is a deep comparison
+     * on every update.
+     */
+    EQUALITY,
+
+    /**
+     * Values are compared by reference, which is a single pointer comparison. A state is new whenever a reducer
+     * returned a different instance, which is exactly when the store's [MviStateStore.version] is incremented. Use this
+     * when reducers only copy the properties they change and share everything else with the previous state.
+     *
+     * Selected properties that are boxed primitives or strings are still compared with `equals`, reading them boxes
+     * the value again on every call so equal values are rarely the same instance.
+     */
+    REFERENCE
+}
+
+/**
+ * Returns true if a selected value did not change. By reference only applies to values that keep their identity
+ * between reads, boxed primitives and strings are compared with equals either way.
+ */
+internal fun isSameValue(previous: Any?, current: Any?, byReference: Boolean): Boolean = when {
+    previous === current -> true
+    !byReference -> previous == current
+    current is Number || current is Boolean || current is Char || current is String -> current == previous
+    else -> false
+}
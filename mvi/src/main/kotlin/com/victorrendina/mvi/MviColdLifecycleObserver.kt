@@ -0,0 +1,104 @@
+package com.victorrendina.mvi
+
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleOwner
+import io.reactivex.Observer
+import io.reactivex.disposables.Disposable
+
+/**
+ * Connects to the upstream only while its [owner] is at least in the [activeState]. Unlike [MviLifecycleAwareObserver],
+ * which stays subscribed and buffers the last value while the owner is stopped, this observer disposes its upstream
+ * subscription when the owner drops below the active state so no work is done for owners that are not visible, for
+ * example fragments on the back stack. When the owner becomes active again [connect] is called to subscribe a new
+ * observer, which receives the current value first.
+ *
+ * Must be created on the main thread and [connect] must deliver values on the main thread.
+ */
+internal class MviColdLifecycleObserver<T>(
+    owner: LifecycleOwner,
+    private val activeState: Lifecycle.State = Lifecycle.State.STARTED,
+    private val connect: (Observer<T>) -> Unit,
+    private var onNext: ((T) -> Unit)?,
+    private var destroyCallback: ((MviColdLifecycleObserver<T>) -> Unit)? = null
+) : MviLifecycleRegistry.Observer, Disposable {
+
+    private var registry: MviLifecycleRegistry? = MviLifecycleRegistry.of(owner)
+    private var connection: Connection? = null
+
+    @Volatile
+    private var disposed = false
+
+    init {
+        registry?.add(this)
+    }
+
+    override fun onLifecycleDestroyed() {
+        destroyCallback?.invoke(this)
+        dispose()
+    }
+
+    override fun onLifecycleStateChanged(state: Lifecycle.State) {
+        if (disposed) return
+        if (state.isAtLeast(activeState)) {
+            if (connection == null) {
+                connection = Connection().also { connect(it) }
+            }
+        } else {
+            disconnect()
+        }
+    }
+
+    private fun disconnect() {
+        connection?.dispose()
+        connection = null
+    }
+
+    override fun isDisposed(): Boolean = disposed
+
+    override fun dispose() {
+        if (disposed) return
+        disposed = true
+        disconnect()
+        registry?.remove(this)
+        registry = null
+        onNext = null
+        destroyCallback = null
+    }
+
+    /**
+     * A single subscription to the upstream. A new one is created every time the owner becomes active so values from
+     * an earlier subscription that were already queued are ignored.
+     */
+    private inner class Connection : Observer<T>, Disposable {
+
+        @Volatile
+        private var upstream: Disposable? = null
+
+        @Volatile
+        private var connected = true
+
+        override fun onSubscribe(d: Disposable) {
+            upstream = d
+            if (!connected) d.dispose()
+        }
+
+        override fun onNext(t: T) {
+            if (connected && connection === this) {
+                onNext?.invoke(t)
+            }
+        }
+
+        override fun onError(e: Throwable) {
+            throw IllegalStateException("State subscriptions must not fail", e)
+        }
+
+        override fun onComplete() {}
+
+        override fun isDisposed(): Boolean = !connected
+
+        override fun dispose() {
+            connected = false
+            upstream?.dispose()
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.victorrendina.mvi
+
+/**
+ * Selector for a value computed from other selectors or properties of the state. The result is cached together with
+ * the inputs it was computed from and only recomputed when one of the inputs changed, so every subscriber and every
+ * view that resubscribes after a configuration change shares the last result.
+ *
+ * Selections run on the thread that emits the state, which is the store thread for subscribers of the view model, so
+ * expensive computations stay off the main thread. With frame aligned delivery views evaluate their selections on the
+ * main thread, the view model then calls every derived selector on the store thread before a state reaches the frame
+ * conflater. The main thread finds the result for the same state instance in the cache and only computes it itself if
+ * the store already moved on to a state with different inputs. The cache is guarded by a lock because the selector is
+ * invoked from several threads.
+ *
+ * @param byReference Compare inputs by reference instead of with equals, see [isSameValue].
+ */
+internal class MviDerivedSelector<S, R>(
+    name: String,
+    private val inputs: Array<(S) -> Any?>,
+    private val byReference: Boolean,
+    private val compute: (Array<Any?>) -> R
+) : MviSelector<S, R>(name) {
+
+    private val lock = Any()
+
+    // Guarded by lock
+    private val lastInputs = arrayOfNulls<Any?>(inputs.size)
+    private var hasResult = false
+    private var lastResult: R? = null
+    private var lastState: Any? = null
+
+    override fun invoke(state: S): R {
+        synchronized(lock) {
+            if (hasResult && state === lastState) {
+                @Suppress("UNCHECKED_CAST")
+                return lastResult as R
+            }
+            lastState = state
+            var changed = !hasResult
+            for (index in inputs.indices) {
+                val value = inputs[index](state)
+                if (changed || !isSame(lastInputs[index], value)) {
+                    changed = true
+                    lastInputs[index] = value
+                }
+            }
+            if (changed) {
+                lastResult = compute(lastInputs)
+                hasResult = true
+            }
+            @Suppress("UNCHECKED_CAST")
+            return lastResult as R
+        }
+    }
+
+    private fun isSame(previous: Any?, current: Any?): Boolean = isSameValue(previous, current, byReference)
+}
@@ -0,0 +1,95 @@
+package com.victorrendina.mvi
+
+import io.reactivex.disposables.Disposable
+import java.lang.ref.WeakReference
+
+/**
+ * Application scoped bus that routes events by key. Subscribers are indexed by the key they registered for, so an event
+ * is only handed to the subscribers of its key instead of every subscriber checking every event. Events are delivered
+ * on the thread that emitted them.
+ *
+ * The bus only holds weak references to its registrations, the returned [Disposable] keeps the subscriber alive. View
+ * models should register through [BaseMviViewModel.subscribeEvents] which keeps the registration until the view model
+ * is cleared, a view model that is never cleared can then still be garbage collected.
+ */
+open class MviEventBus<K : Any, E : Any> {
+
+    private val lock = Any()
+
+    // Guarded by lock, the arrays are replaced instead of modified so they can be iterated without the lock
+    private val registrations = HashMap<K, Array<WeakReference<Registration>>>()
+
+    /**
+     * Deliver the event to the subscribers registered for the key and return how many there were.
+     */
+    fun emit(key: K, event: E): Int {
+        val subscribers = synchronized(lock) { registrations[key] } ?: return 0
+        var delivered = 0
+        var collected = false
+        for (reference in subscribers) {
+            val registration = reference.get()
+            if (registration == null) {
+                collected = true
+            } else if (registration.deliver(event)) {
+                delivered++
+            }
+        }
+        if (collected) {
+            synchronized(lock) { removeCollected(key) }
+        }
+        return delivered
+    }
+
+    /**
+     * Deliver the events emitted for the key to the subscriber until the returned disposable is disposed or garbage
+     * collected.
+     */
+    fun register(key: K, subscriber: (E) -> Unit): Disposable {
+        val registration = Registration(key, subscriber)
+        synchronized(lock) {
+            removeCollected(key)
+            val subscribers = registrations[key] ?: emptyArray()
+            registrations[key] = subscribers + WeakReference(registration)
+        }
+        return registration
+    }
+
+    /**
+     * Number of keys with at least one registration, including registrations that were not yet found to be collected.
+     */
+    val keyCount: Int
+        get() = synchronized(lock) { registrations.size }
+
+    // Must be called with the lock held
+    private fun removeCollected(key: K) {
+        val subscribers = registrations[key] ?: return
+        val remaining = subscribers.filter { it.get()?.isDisposed == false }
+        when {
+            remaining.isEmpty() -> registrations.remove(key)
+            remaining.size != subscribers.size -> registrations[key] = remaining.toTypedArray()
+        }
+    }
+
+    private inner class Registration(
+        private val key: K,
+        subscriber: (E) -> Unit
+    ) : Disposable {
+
+        @Volatile
+        private var subscriber: ((E) -> Unit)? = subscriber
+
+        fun deliver(event: E): Boolean {
+            val subscriber = subscriber ?: return false
+            subscriber(event)
+            return true
+        }
+
+        override fun isDisposed(): Boolean = subscriber == null
+
+        override fun dispose() {
+            if (subscriber == null) return
+            subscriber = null
+            synchronized(lock) { removeCollected(key) }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.victorrendina.mvi
+
+import android.os.Handler
+import android.os.Looper
+import android.view.Choreographer
+import io.reactivex.Observable
+import io.reactivex.disposables.Disposable
+import io.reactivex.subjects.BehaviorSubject
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Coalesces values emitted by [upstream] and re-emits only the most recent one on the main thread once per
+ * [Choreographer] frame. Values that are replaced before the next frame are dropped and counted in [droppedValues].
+ *
+ * [observable] emits on the main thread and starts with [initialValue]. Leading upstream values that are the same
+ * instance as [initialValue] are skipped so it is not delivered a second time on the first frame.
+ */
+internal class MviFrameConflater<T : Any>(upstream: Observable<T>, initialValue: T) : Disposable {
+
+    private val latest = AtomicReference<T?>()
+    private val frameScheduled = AtomicBoolean(false)
+    private val subject: BehaviorSubject<T> = BehaviorSubject.createDefault(initialValue)
+    private val mainHandler = Handler(Looper.getMainLooper())
+
+    private val dropped = AtomicLong()
+    private val delivered = AtomicLong()
+
+    // Choreographer instances are per thread, only the main thread instance may be cached here
+    @Volatile
+    private var choreographer: Choreographer? = null
+
+    private val frameCallback = Choreographer.FrameCallback {
+        frameScheduled.set(false)
+        val value = latest.getAndSet(null)
+        if (value != null) {
+            delivered.incrementAndGet()
+            subject.onNext(value)
+        }
+    }
+
+    private val postFrameCallback = Runnable { requireChoreographer().postFrameCallback(frameCallback) }
+
+    // The upstream replays the current state on subscribe, which is the initial value the subject already holds
+    private val subscription: Disposable = upstream.skipWhile { it === initialValue }.subscribe { value ->
+        if (latest.getAndSet(value) != null) {
+            dropped.incrementAndGet()
+        }
+        scheduleFrame()
+    }
+
+    val observable: Observable<T> = subject
+
+    /**
+     * Number of values that were replaced by a newer value before they could be delivered.
+     */
+    val droppedValues: Long
+        get() = dropped.get()
+
+    /**
+     * Number of values delivered on a frame.
+     */
+    val deliveredValues: Long
+        get() = delivered.get()
+
+    private fun scheduleFrame() {
+        if (!frameScheduled.compareAndSet(false, true)) {
+            return
+        }
+        val cached = choreographer
+        if (cached != null) {
+            // Posting a frame callback is safe from any thread
+            cached.postFrameCallback(frameCallback)
+        } else if (Looper.myLooper() == Looper.getMainLooper()) {
+            requireChoreographer().postFrameCallback(frameCallback)
+        } else {
+            mainHandler.post(postFrameCallback)
+        }
+    }
+
+    private fun requireChoreographer(): Choreographer =
+        choreographer ?: Choreographer.getInstance().also { choreographer = it }
+
+    override fun isDisposed(): Boolean = subscription.isDisposed
+
+    override fun dispose() {
+        subscription.dispose()
+        mainHandler.removeCallbacks(postFrameCallback)
+        choreographer?.removeFrameCallback(frameCallback)
+    }
+}
@@ -0,0 +1,22 @@
+package com.victorrendina.mvi
+
+/**
+ * Counters for view models that deliver state to their views once per frame.
+ */
+class MviFrameDeliveryMetrics internal constructor(private val conflater: MviFrameConflater<*>) {
+
+    /**
+     * Number of states delivered to view subscribers.
+     */
+    val deliveredStates: Long
+        get() = conflater.deliveredValues
+
+    /**
+     * Number of intermediate states that were replaced by a newer state within the same frame and never delivered.
+     */
+    val droppedStates: Long
+        get() = conflater.droppedValues
+
+    override fun toString(): String =
+        "MviFrameDeliveryMetrics(deliveredStates=$deliveredStates, droppedStates=$droppedStates)"
+}
@@ -0,0 +1,64 @@
+package com.victorrendina.mvi
+
+import io.reactivex.disposables.Disposable
+import java.util.WeakHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Wraps a subscriber to time every call and reports it to the [listener]. Disposing the subscription disposes the
+ * [upstream] and updates the live subscription counts.
+ */
+internal class MviInstrumentedSubscription<T>(
+    private val viewModel: Any,
+    private val owner: Any?,
+    selection: String,
+    private val listener: MviSubscriptionListener,
+    private val subscriber: (T) -> Unit
+) : Disposable {
+
+    private val stats = MviSubscriptionStats(
+        viewModel.javaClass.simpleName,
+        owner?.javaClass?.simpleName,
+        selection
+    )
+    private val disposed = AtomicBoolean()
+
+    var upstream: Disposable? = null
+
+    init {
+        listener.onSubscribed(stats, changeCount(viewModel, 1), owner?.let { changeCount(it, 1) } ?: 0)
+    }
+
+    fun deliver(value: T) {
+        val start = System.nanoTime()
+        subscriber(value)
+        val duration = System.nanoTime() - start
+        val overBudget = duration > Mvi.subscriberFrameBudgetNanos
+        stats.onDelivered(duration, overBudget)
+        listener.onDelivered(stats, duration)
+        if (overBudget) {
+            listener.onFrameBudgetExceeded(stats, duration)
+        }
+    }
+
+    override fun isDisposed(): Boolean = disposed.get()
+
+    override fun dispose() {
+        if (disposed.compareAndSet(false, true)) {
+            upstream?.dispose()
+            listener.onUnsubscribed(stats, changeCount(viewModel, -1), owner?.let { changeCount(it, -1) } ?: 0)
+        }
+    }
+
+    private companion object {
+        // Live instrumented subscriptions keyed by view model and by lifecycle owner
+        private val counts = WeakHashMap<Any, IntArray>()
+
+        fun changeCount(key: Any, delta: Int): Int = synchronized(counts) {
+            val count = counts.getOrPut(key) { IntArray(1) }
+            count[0] += delta
+            if (count[0] == 0) counts.remove(key)
+            count[0]
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package com.victorrendina.mvi
 
 import androidx.lifecycle.Lifecycle
-import androidx.lifecycle.LifecycleObserver
 import androidx.lifecycle.LifecycleOwner
-import androidx.lifecycle.OnLifecycleEvent
 import io.reactivex.Observer
 import io.reactivex.disposables.Disposable
 import io.reactivex.functions.Action
@@ -25,7 +23,7 @@ internal class MviLifecycleAwareObserver<T>(
     private val alwaysDeliverLastValueWhenUnlocked: Boolean = false,
     private var sourceObserver: Observer<T>?,
     private var destroyCallback: ((MviLifecycleAwareObserver<T>) -> Unit)? = null
-) : AtomicReference<Disposable>(), LifecycleObserver, Observer<T>,
+) : AtomicReference<Disposable>(), MviLifecycleRegistry.Observer, Observer<T>,
     Disposable {
 
     constructor(
@@ -48,29 +46,24 @@ internal class MviLifecycleAwareObserver<T>(
     private var lastUndeliveredValue: T? = null
     private var lastValue: T? = null
     private val locked = AtomicBoolean(true)
+    private var registry: MviLifecycleRegistry? = null
 
     override fun onSubscribe(d: Disposable) {
         if (DisposableHelper.setOnce(this, d)) {
-            requireOwner().lifecycle.addObserver(this)
+            registry = MviLifecycleRegistry.of(requireOwner()).also { it.add(this) }
             requireSourceObserver().onSubscribe(this)
         }
     }
 
-    @OnLifecycleEvent(Lifecycle.Event.ON_DESTROY)
-    fun onDestroy() {
+    override fun onLifecycleDestroyed() {
         destroyCallback?.invoke(this)
         if (!isDisposed) {
             dispose()
         }
     }
 
-    @OnLifecycleEvent(Lifecycle.Event.ON_ANY)
-    fun onLifecycleEvent() {
-        updateLock()
-    }
-
-    private fun updateLock() {
-        if (owner?.lifecycle?.currentState?.isAtLeast(activeState) == true) {
+    override fun onLifecycleStateChanged(state: Lifecycle.State) {
+        if (state.isAtLeast(activeState)) {
             unlock()
         } else {
             lock()
@@ -100,7 +93,8 @@ internal class MviLifecycleAwareObserver<T>(
     override fun isDisposed(): Boolean = get() === DisposableHelper.DISPOSED
 
     override fun dispose() {
-        owner?.lifecycle?.removeObserver(this)
+        registry?.remove(this)
+        registry = null
         owner = null
         sourceObserver = null
         destroyCallback = null
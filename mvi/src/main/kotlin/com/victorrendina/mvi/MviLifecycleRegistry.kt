@@ -0,0 +1,85 @@
+package com.victorrendina.mvi
+
+import androidx.lifecycle.DefaultLifecycleObserver
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleOwner
+import java.util.WeakHashMap
+
+/**
+ * Single lifecycle observer shared by every subscription of a [LifecycleOwner]. The owner's lifecycle only has to
+ * notify one observer per event no matter how many subscriptions it has, and the registry notifies all of them in one
+ * pass. Adding and removing a subscription does not touch the owner's observer list.
+ *
+ * Like the lifecycle itself the registry must only be used from the main thread.
+ */
+internal class MviLifecycleRegistry private constructor() : DefaultLifecycleObserver {
+
+    /**
+     * Receives the lifecycle state changes of the owner it was added for.
+     */
+    interface Observer {
+        /**
+         * Called when the observer is added and after every lifecycle event with the owner's new state.
+         */
+        fun onLifecycleStateChanged(state: Lifecycle.State)
+
+        /**
+         * Called once when the owner is destroyed. The observer is removed from the registry afterwards.
+         */
+        fun onLifecycleDestroyed()
+    }
+
+    // Insertion ordered so observers are notified in the order they subscribed
+    private val observers = LinkedHashSet<Observer>()
+
+    private var state = Lifecycle.State.INITIALIZED
+
+    fun add(observer: Observer) {
+        observers.add(observer)
+        observer.onLifecycleStateChanged(state)
+    }
+
+    fun remove(observer: Observer) {
+        observers.remove(observer)
+    }
+
+    override fun onCreate(owner: LifecycleOwner) = dispatch(owner)
+
+    override fun onStart(owner: LifecycleOwner) = dispatch(owner)
+
+    override fun onResume(owner: LifecycleOwner) = dispatch(owner)
+
+    override fun onPause(owner: LifecycleOwner) = dispatch(owner)
+
+    override fun onStop(owner: LifecycleOwner) = dispatch(owner)
+
+    override fun onDestroy(owner: LifecycleOwner) {
+        state = Lifecycle.State.DESTROYED
+        owner.lifecycle.removeObserver(this)
+        registries.remove(owner)
+        // Observers remove themselves when they are notified, so iterate over a copy
+        val destroyed = observers.toTypedArray()
+        observers.clear()
+        destroyed.forEach { it.onLifecycleDestroyed() }
+    }
+
+    private fun dispatch(owner: LifecycleOwner) {
+        state = owner.lifecycle.currentState
+        observers.toTypedArray().forEach { it.onLifecycleStateChanged(state) }
+    }
+
+    companion object {
+        private val registries = WeakHashMap<LifecycleOwner, MviLifecycleRegistry>()
+
+        /**
+         * Returns the registry for the owner, creating it and adding it to the owner's lifecycle the first time.
+         */
+        fun of(owner: LifecycleOwner): MviLifecycleRegistry =
+            registries.getOrPut(owner) {
+                MviLifecycleRegistry().also {
+                    // Events up to the current state are delivered right away, which initializes the state
+                    owner.lifecycle.addObserver(it)
+                }
+            }
+    }
+}
@@ -1,4 +1,404 @@
 package com.victorrendina.mvi
 
-// TODO
-class MviMessageCenter
\ No newline at end of file
+import io.reactivex.Scheduler
+import io.reactivex.disposables.Disposable
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Broadcasts messages to any number of subscribers. Every message is stored once in a ring buffer that all
+ * subscribers read through their own cursor, a message is released once every subscriber that handles it read it.
+ * Messages sent while there are no subscribers are kept for the first one.
+ *
+ * Subscribers start paused at the oldest buffered message. Messages sent while a subscriber is paused are kept for it
+ * and delivered in order on [scheduler] once it is resumed, unless the [MviMessagePolicy] they were sent with
+ * discarded them in the meantime.
+ *
+ * Every subscriber only receives messages of the type it subscribed to. Subscribers are looked up by the class of
+ * the message in a dispatch table and only the subscribers that handle a message are scheduled. A message is released
+ * once every subscriber that handles it read it, a message that no subscriber handles is kept for the next subscriber
+ * that does, like the messages sent while there are no subscribers at all.
+ *
+ * A message sent with a coalesce key replaces the buffered message with the same key in place, as long as no
+ * subscriber read that message yet. Otherwise it is appended like any other message.
+ *
+ * Sending takes constant time apart from scheduling the subscribers that handle the message. Cursors are not moved
+ * when messages are sent or discarded, a subscriber skips the messages it does not handle and the ones that were
+ * discarded the next time it reads.
+ */
+class MviMessageCenter(private val scheduler: Scheduler) : Disposable {
+
+    private val lock = Any()
+
+    // Guarded by lock, the capacity is always a power of two
+    private var buffer = arrayOfNulls<Any>(INITIAL_CAPACITY)
+    private var expiresAt = LongArray(INITIAL_CAPACITY)
+    private var keys = arrayOfNulls<Any>(INITIAL_CAPACITY)
+    // Whether a subscriber received the message, a message that was received can no longer be replaced
+    private var delivered = BooleanArray(INITIAL_CAPACITY)
+    // Sequence number of the latest buffered message for every coalesce key
+    private val keyedMessages = HashMap<Any, Long>()
+    // Sequence numbers of the oldest buffered message and of the next message to be sent
+    private var head = 0L
+    private var tail = 0L
+    private val subscribers = ArrayList<Subscriber>()
+    // Subscribers that handle each message class, cleared whenever the subscribers change
+    private val dispatchTable = HashMap<Class<*>, Array<Subscriber>>()
+    private var disposed = false
+
+    /**
+     * Number of messages that are buffered for at least one subscriber.
+     */
+    val size: Int
+        get() = synchronized(lock) { (tail - head).toInt() }
+
+    @Volatile
+    var droppedMessages = 0L
+        private set
+
+    @Volatile
+    var expiredMessages = 0L
+        private set
+
+    @Volatile
+    var coalescedMessages = 0L
+        private set
+
+    /**
+     * Number of messages that no subscriber handled when they were sent. They are kept for a later subscriber.
+     */
+    @Volatile
+    var unhandledMessages = 0L
+        private set
+
+    fun send(message: Any, coalesceKey: Any? = null, policy: MviMessagePolicy = MviMessagePolicy.UNBOUNDED) {
+        val now = System.nanoTime()
+        val handlers = synchronized(lock) {
+            if (disposed) return
+            val handlers = handlersOf(message.javaClass)
+            if (handlers.isEmpty() && subscribers.isNotEmpty()) {
+                unhandledMessages++
+            }
+            expireOldest(now)
+            if (coalesceKey != null && replace(coalesceKey, message, policy.expiresAt(now))) {
+                return@synchronized handlers
+            }
+            if (tail - head >= policy.maxCount) {
+                if (policy.overflow == MviMessagePolicy.Overflow.DROP_NEWEST) {
+                    droppedMessages++
+                    return
+                }
+                var oldest = head
+                while (tail - oldest >= policy.maxCount) {
+                    if (buffer[index(oldest)] !== EXPIRED) droppedMessages++
+                    oldest++
+                }
+                discardUntil(oldest)
+            }
+            if (tail - head == buffer.size.toLong()) {
+                grow()
+            }
+            buffer[index(tail)] = message
+            expiresAt[index(tail)] = policy.expiresAt(now)
+            keys[index(tail)] = coalesceKey
+            delivered[index(tail)] = false
+            if (coalesceKey != null) {
+                keyedMessages[coalesceKey] = tail
+            }
+            tail++
+            handlers
+        }
+        for (subscriber in handlers) {
+            subscriber.schedule()
+        }
+    }
+
+    /**
+     * Register a subscriber for all messages that starts paused at the oldest buffered message.
+     */
+    fun subscribe(subscriber: (Any) -> Unit): Subscription = subscribe(Any::class.java, subscriber)
+
+    /**
+     * Register a subscriber for messages of the given type that starts paused at the oldest buffered message. A
+     * primitive type receives the boxed messages of that type.
+     */
+    fun <T : Any> subscribe(type: Class<T>, subscriber: (T) -> Unit): Subscription {
+        @Suppress("UNCHECKED_CAST")
+        val subscription = Subscriber(type.kotlin.javaObjectType, subscriber as (Any) -> Unit)
+        synchronized(lock) {
+            if (disposed) {
+                subscription.dispose()
+                return subscription
+            }
+            subscription.cursor = head
+            subscribers.add(subscription)
+            dispatchTable.clear()
+        }
+        return subscription
+    }
+
+    override fun isDisposed(): Boolean = synchronized(lock) { disposed }
+
+    override fun dispose() {
+        val removed = synchronized(lock) {
+            if (disposed) return
+            disposed = true
+            buffer = emptyArray()
+            expiresAt = LongArray(0)
+            keys = emptyArray()
+            delivered = BooleanArray(0)
+            keyedMessages.clear()
+            head = tail
+            dispatchTable.clear()
+            subscribers.toList().also { subscribers.clear() }
+        }
+        removed.forEach { it.dispose() }
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private fun handlersOf(messageClass: Class<*>): Array<Subscriber> =
+        dispatchTable.getOrPut(messageClass) {
+            subscribers.filter { it.type.isAssignableFrom(messageClass) }.toTypedArray()
+        }
+
+    private fun index(sequence: Long) = (sequence and (buffer.size - 1).toLong()).toInt()
+
+    private fun grow() {
+        val grown = arrayOfNulls<Any>(buffer.size * 2)
+        val grownExpiresAt = LongArray(grown.size)
+        val grownKeys = arrayOfNulls<Any>(grown.size)
+        val grownDelivered = BooleanArray(grown.size)
+        val mask = (grown.size - 1).toLong()
+        for (sequence in head until tail) {
+            grown[(sequence and mask).toInt()] = buffer[index(sequence)]
+            grownExpiresAt[(sequence and mask).toInt()] = expiresAt[index(sequence)]
+            grownKeys[(sequence and mask).toInt()] = keys[index(sequence)]
+            grownDelivered[(sequence and mask).toInt()] = delivered[index(sequence)]
+        }
+        buffer = grown
+        expiresAt = grownExpiresAt
+        keys = grownKeys
+        delivered = grownDelivered
+    }
+
+    /**
+     * Must be called with the lock held. Replaces the buffered message with the same key if no subscriber received it
+     * yet and returns whether it did. Only a message of the same class is replaced, a subscriber that skipped the
+     * buffered message does not handle its class, so it would not have received the new message either.
+     */
+    private fun replace(key: Any, message: Any, expiry: Long): Boolean {
+        val sequence = keyedMessages[key] ?: return false
+        val index = index(sequence)
+        val replaced = buffer[index]
+        if (replaced === EXPIRED || delivered[index] || replaced?.javaClass !== message.javaClass) return false
+        buffer[index] = message
+        expiresAt[index] = expiry
+        coalescedMessages++
+        return true
+    }
+
+    /**
+     * Must be called with the lock held. Clears the oldest message and moves the start of the buffer past it.
+     */
+    private fun removeOldest() {
+        val index = index(head)
+        val key = keys[index]
+        if (key != null && keyedMessages[key] == head) {
+            keyedMessages.remove(key)
+        }
+        buffer[index] = null
+        keys[index] = null
+        head++
+    }
+
+    private fun isExpired(sequence: Long, now: Long): Boolean {
+        val expiry = expiresAt[index(sequence)]
+        return expiry != MviMessagePolicy.NEVER && now - expiry >= 0
+    }
+
+    /**
+     * Must be called with the lock held. Marks the message as expired and counts it the first time a reader finds it
+     * expired, the slot stays in place until every subscriber passed it.
+     */
+    private fun expire(sequence: Long) {
+        val index = index(sequence)
+        if (buffer[index] !== EXPIRED) {
+            buffer[index] = EXPIRED
+            expiredMessages++
+        }
+    }
+
+    /**
+     * Must be called with the lock held. Discards the expired messages at the start of the buffer, so paused
+     * subscribers do not hold on to them.
+     */
+    private fun expireOldest(now: Long) {
+        var oldest = head
+        while (oldest < tail && isExpired(oldest, now)) {
+            expire(oldest)
+            oldest++
+        }
+        discardUntil(oldest)
+    }
+
+    /**
+     * Must be called with the lock held. Removes the messages before [sequence] from the buffer, subscribers that did
+     * not read them yet start at the new head the next time they read.
+     */
+    private fun discardUntil(sequence: Long) {
+        while (head < sequence) {
+            removeOldest()
+        }
+    }
+
+    /**
+     * Must be called with the lock held. Releases the oldest messages that every subscriber handling them has read,
+     * when the last subscriber is removed the messages it already received are released as well.
+     */
+    private fun release(fallback: Long) {
+        if (subscribers.isEmpty()) {
+            while (head < fallback) {
+                removeOldest()
+            }
+            return
+        }
+        var oldest = head
+        while (oldest < tail && isRead(oldest)) {
+            oldest++
+        }
+        discardUntil(oldest)
+    }
+
+    /**
+     * Must be called with the lock held. Returns true if the message was expired or read by every subscriber that
+     * handles it. A message that no subscriber handles was not read by anyone yet. A cursor behind the head has not
+     * read anything that is still buffered.
+     */
+    private fun isRead(sequence: Long): Boolean {
+        val message = buffer[index(sequence)]
+        if (message === EXPIRED) return true
+        var handled = false
+        for (i in subscribers.indices) {
+            val subscriber = subscribers[i]
+            if (subscriber.type.isInstance(message)) {
+                if (subscriber.cursor <= sequence) return false
+                handled = true
+            }
+        }
+        return handled
+    }
+
+    /**
+     * Returns the next message the subscriber handles and advances its cursor past it, or null if it read everything.
+     * A cursor behind the head points at discarded messages and continues from the head.
+     */
+    private fun poll(subscriber: Subscriber): Any? = synchronized(lock) {
+        if (disposed) return null
+        val now = System.nanoTime()
+        var cursor = maxOf(subscriber.cursor, head)
+        var message: Any? = null
+        while (cursor < tail) {
+            if (isExpired(cursor, now)) {
+                expire(cursor++)
+                continue
+            }
+            val candidate = buffer[index(cursor++)]
+            if (subscriber.type.isInstance(candidate)) {
+                delivered[index(cursor - 1)] = true
+                message = candidate
+                break
+            }
+        }
+        val passedHead = subscriber.cursor <= head
+        subscriber.cursor = cursor
+        if (passedHead) {
+            release(head)
+        }
+        message
+    }
+
+    private fun remove(subscriber: Subscriber) {
+        synchronized(lock) {
+            if (subscribers.remove(subscriber)) {
+                dispatchTable.clear()
+                release(subscriber.cursor)
+            }
+        }
+    }
+
+    interface Subscription : Disposable {
+
+        /**
+         * Deliver the buffered messages and every message sent from now on.
+         */
+        fun resume()
+
+        /**
+         * Stop delivering messages, they are buffered until the subscription is resumed.
+         */
+        fun pause()
+    }
+
+    private inner class Subscriber(
+        val type: Class<*>,
+        private val onMessage: (Any) -> Unit
+    ) : Subscription, Runnable {
+
+        // Guarded by lock
+        var cursor = 0L
+
+        @Volatile
+        private var active = false
+        @Volatile
+        private var disposed = false
+        private val wip = AtomicInteger()
+        private val worker = scheduler.createWorker()
+
+        override fun resume() {
+            active = true
+            schedule()
+        }
+
+        override fun pause() {
+            active = false
+        }
+
+        fun schedule() {
+            if (active && wip.getAndIncrement() == 0) {
+                worker.schedule(this)
+            }
+        }
+
+        override fun run() {
+            var missed = 1
+            while (true) {
+                while (active && !disposed) {
+                    val message = poll(this) ?: break
+                    onMessage(message)
+                }
+                missed = wip.addAndGet(-missed)
+                if (missed == 0) {
+                    break
+                }
+            }
+        }
+
+        override fun isDisposed(): Boolean = disposed
+
+        override fun dispose() {
+            if (disposed) return
+            disposed = true
+            active = false
+            worker.dispose()
+            remove(this)
+        }
+    }
+
+    private companion object {
+        const val INITIAL_CAPACITY = 16
+
+        // Replaces messages that expired before every subscriber read them
+        val EXPIRED = Any()
+    }
+}
@@ -0,0 +1,35 @@
+package com.victorrendina.mvi
+
+/**
+ * Counters for messages that were sent by a view model but never delivered to its views.
+ */
+class MviMessageMetrics internal constructor(private val messageCenter: MviMessageCenter) {
+
+    /**
+     * Number of messages discarded because the buffer held the maximum number of messages of their policy.
+     */
+    val droppedMessages: Long
+        get() = messageCenter.droppedMessages
+
+    /**
+     * Number of messages discarded because they were older than the maximum age of their policy.
+     */
+    val expiredMessages: Long
+        get() = messageCenter.expiredMessages
+
+    /**
+     * Number of messages that replaced a buffered message with the same coalesce key instead of being appended.
+     */
+    val coalescedMessages: Long
+        get() = messageCenter.coalescedMessages
+
+    /**
+     * Number of messages discarded when they were sent because no subscriber handled their type.
+     */
+    val unhandledMessages: Long
+        get() = messageCenter.unhandledMessages
+
+    override fun toString(): String =
+        "MviMessageMetrics(droppedMessages=$droppedMessages, expiredMessages=$expiredMessages, " +
+            "coalescedMessages=$coalescedMessages, unhandledMessages=$unhandledMessages)"
+}
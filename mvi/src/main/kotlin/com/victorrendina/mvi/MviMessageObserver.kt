@@ -1,70 +1,52 @@
 package com.victorrendina.mvi
 
 import androidx.lifecycle.Lifecycle
-import androidx.lifecycle.LifecycleObserver
 import androidx.lifecycle.LifecycleOwner
-import androidx.lifecycle.OnLifecycleEvent
-import io.reactivex.Observable
 import io.reactivex.disposables.Disposable
 import io.reactivex.internal.disposables.DisposableHelper
 import java.util.concurrent.atomic.AtomicReference
 
+/**
+ * Keeps the [subscription] to a message center for as long as the owner is not destroyed. Messages are delivered
+ * while the owner is started, messages sent while it is stopped stay buffered in the message center until it is
+ * started again.
+ */
 internal class MviMessageObserver(
     owner: LifecycleOwner,
-    private val observable: Observable<Any>,
-    subscriber: ((Any) -> Unit),
+    private val subscription: MviMessageCenter.Subscription,
     private var destroyCallback: ((MviMessageObserver) -> Unit)? = null
 
-) : AtomicReference<Disposable>(), LifecycleObserver, Disposable {
+) : AtomicReference<Disposable>(), MviLifecycleRegistry.Observer, Disposable {
 
-    private var owner: LifecycleOwner? = owner
-    private var subscriber: ((Any) -> Unit)? = subscriber
-    private var subscription: Disposable? = null
+    private var registry: MviLifecycleRegistry? = MviLifecycleRegistry.of(owner)
 
     init {
-        owner.lifecycle.addObserver(this)
+        registry?.add(this)
     }
 
-    @OnLifecycleEvent(Lifecycle.Event.ON_DESTROY)
-    fun onDestroy() {
+    override fun onLifecycleDestroyed() {
         destroyCallback?.invoke(this)
         if (!isDisposed) {
             dispose()
         }
     }
 
-    @OnLifecycleEvent(Lifecycle.Event.ON_ANY)
-    fun onLifecycleEvent() {
-        updateSubscription()
-    }
-
-    private fun updateSubscription() {
-        if (owner?.lifecycle?.currentState?.isAtLeast(Lifecycle.State.STARTED) == true) {
-            synchronized(this) {
-                if (!isDisposed && subscription == null) {
-                    subscription = observable.subscribe(subscriber)
-                }
-            }
+    override fun onLifecycleStateChanged(state: Lifecycle.State) {
+        if (state.isAtLeast(Lifecycle.State.STARTED)) {
+            subscription.resume()
         } else {
-            innerDispose()
+            subscription.pause()
         }
     }
 
-    @Synchronized
-    private fun innerDispose() {
-        subscription?.dispose()
-        subscription = null
-    }
-
     override fun isDisposed(): Boolean = get() === DisposableHelper.DISPOSED
 
     @Synchronized
     override fun dispose() {
-        owner?.lifecycle?.removeObserver(this)
-        owner = null
-        subscriber = null
+        registry?.remove(this)
+        registry = null
         destroyCallback = null
-        innerDispose()
+        subscription.dispose()
         DisposableHelper.dispose(this)
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.victorrendina.mvi
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * Limits how long a message waits in the buffer of a view model while its views are stopped.
+ *
+ * @param maxCount Maximum number of buffered messages once this message was sent, counting messages sent with any
+ *                 policy.
+ * @param maxAgeMillis Messages that were not delivered within this time are discarded.
+ * @param overflow Which message to discard when there are already [maxCount] messages buffered.
+ */
+data class MviMessagePolicy(
+    val maxCount: Int = Int.MAX_VALUE,
+    val maxAgeMillis: Long = Long.MAX_VALUE,
+    val overflow: Overflow = Overflow.DROP_OLDEST
+) {
+
+    init {
+        require(maxCount > 0) { "maxCount must be positive but was $maxCount" }
+        require(maxAgeMillis > 0) { "maxAgeMillis must be positive but was $maxAgeMillis" }
+    }
+
+    enum class Overflow {
+        /**
+         * Discard the oldest buffered messages to make room for the new message.
+         */
+        DROP_OLDEST,
+        /**
+         * Discard the new message and keep the buffered ones.
+         */
+        DROP_NEWEST
+    }
+
+    internal fun expiresAt(nowNanos: Long): Long {
+        val maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis)
+        return if (maxAgeNanos >= Long.MAX_VALUE - nowNanos) NEVER else nowNanos + maxAgeNanos
+    }
+
+    companion object {
+        /**
+         * Messages are kept until every view received them.
+         */
+        @JvmField
+        val UNBOUNDED = MviMessagePolicy()
+
+        internal const val NEVER = Long.MAX_VALUE
+    }
+}
@@ -0,0 +1,123 @@
+package com.victorrendina.mvi
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Unbounded lock-free queue that can be offered to from any number of threads and polled from a single thread.
+ *
+ * Items are stored in fixed size array segments that are linked together as the queue grows. Producers claim a slot
+ * in the current segment with a single atomic increment, so offering an item does not allocate a list node and never
+ * blocks on a monitor held by the consumer.
+ *
+ * [poll], [peek] and [isEmpty] must only be called by one thread at a time, typically the thread draining the queue. An item
+ * whose slot has been claimed but not yet written is not visible to the consumer, so producers must signal the
+ * consumer after [offer] returns.
+ */
+internal class MviMpscQueue<T : Any>(private val segmentSize: Int = DEFAULT_SEGMENT_SIZE) {
+
+    private class Segment(size: Int) {
+        val items = AtomicReferenceArray<Any?>(size)
+        // Written before the item is published so the consumer sees the stamp once it sees the item
+        val stamps = LongArray(size)
+        val claimed = AtomicInteger()
+        val next = AtomicReference<Segment?>()
+    }
+
+    private val producerSegment: AtomicReference<Segment>
+
+    // Only accessed by the consumer thread
+    private var consumerSegment: Segment
+    private var consumerIndex = 0
+
+    /**
+     * Stamp that was offered with the item most recently returned by [poll]. Only valid on the consumer thread.
+     */
+    var lastPolledStamp = 0L
+        private set
+
+    /**
+     * Stamp that was offered with the item most recently returned by [peek]. Only valid on the consumer thread.
+     */
+    var lastPeekedStamp = 0L
+        private set
+
+    init {
+        require(segmentSize > 0) { "Segment size must be positive but was $segmentSize" }
+        val segment = Segment(segmentSize)
+        producerSegment = AtomicReference(segment)
+        consumerSegment = segment
+    }
+
+    /**
+     * Add an item to the end of the queue. Safe to call from any thread.
+     *
+     * @param stamp Arbitrary value stored next to the item without allocating, for example the time it was queued.
+     */
+    fun offer(item: T, stamp: Long = 0L) {
+        while (true) {
+            val segment = producerSegment.get()
+            val index = segment.claimed.getAndIncrement()
+            if (index < segmentSize) {
+                segment.stamps[index] = stamp
+                segment.items.set(index, item)
+                return
+            }
+            // The segment is full, link a new one or help the producer that is already linking it and try again
+            var next = segment.next.get()
+            if (next == null) {
+                val created = Segment(segmentSize)
+                next = if (segment.next.compareAndSet(null, created)) created else segment.next.get()!!
+            }
+            producerSegment.compareAndSet(segment, next)
+        }
+    }
+
+    /**
+     * Remove and return the item at the head of the queue or null if there are no visible items.
+     * Must only be called from the consumer thread.
+     */
+    fun poll(): T? {
+        while (true) {
+            if (consumerIndex < segmentSize) {
+                val items = consumerSegment.items
+                val item = items.get(consumerIndex) ?: return null
+                lastPolledStamp = consumerSegment.stamps[consumerIndex]
+                // Release the reference so the item can be collected before the segment is
+                items.lazySet(consumerIndex, null)
+                consumerIndex++
+                @Suppress("UNCHECKED_CAST")
+                return item as T
+            }
+            consumerSegment = consumerSegment.next.get() ?: return null
+            consumerIndex = 0
+        }
+    }
+
+    /**
+     * Return the item at the head of the queue without removing it or null if there are no visible items.
+     * Must only be called from the consumer thread.
+     */
+    fun peek(): T? {
+        while (true) {
+            if (consumerIndex < segmentSize) {
+                val item = consumerSegment.items.get(consumerIndex) ?: return null
+                lastPeekedStamp = consumerSegment.stamps[consumerIndex]
+                @Suppress("UNCHECKED_CAST")
+                return item as T
+            }
+            consumerSegment = consumerSegment.next.get() ?: return null
+            consumerIndex = 0
+        }
+    }
+
+    /**
+     * True if there are no visible items in the queue. Must only be called from the consumer thread.
+     */
+    fun isEmpty(): Boolean = peek() == null
+
+    companion object {
+        const val DEFAULT_SEGMENT_SIZE = 64
+    }
+}
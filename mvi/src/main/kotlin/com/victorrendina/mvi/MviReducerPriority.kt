@@ -0,0 +1,17 @@
+package com.victorrendina.mvi
+
+/**
+ * Lane a state reducer is queued in. Reducers keep their relative order within a lane.
+ */
+enum class MviReducerPriority {
+    /**
+     * Reducers are folded before any pending background reducer or get block. Use this for small reducers that
+     * respond to user input so they are not held up behind expensive reducers queued earlier.
+     */
+    INTERACTIVE,
+
+    /**
+     * The default lane. Reducers run in the order they were queued, together with get blocks.
+     */
+    BACKGROUND
+}
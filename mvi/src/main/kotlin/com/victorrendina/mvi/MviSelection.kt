@@ -0,0 +1,279 @@
+package com.victorrendina.mvi
+
+/**
+ * A value derived from the state that is compared with the previous one to decide if subscribers need to be notified.
+ * Selections are owned by a [MviStateDispatcher] and only updated while holding its lock.
+ */
+internal abstract class MviSelection<S, T> {
+
+    /**
+     * Number of subscriptions sharing this selection.
+     */
+    var subscribers = 0
+
+    /**
+     * True if the last call to [update] changed [value].
+     */
+    var changed = false
+
+    abstract val hasValue: Boolean
+
+    /**
+     * Last selected value. Only valid if [hasValue] is true.
+     */
+    abstract val value: T
+
+    /**
+     * Select the value from the new state and return true if it is different from the previous value.
+     */
+    abstract fun update(state: S): Boolean
+}
+
+/**
+ * Selection computed by a function. A function result of null never reaches subscribers.
+ *
+ * @param isSame Returns true if the new value does not need to be delivered because it matches the previous one.
+ */
+internal class MviMappedSelection<S, T>(
+    private val select: (S) -> T?,
+    private val isSame: (previous: T, current: T) -> Boolean
+) : MviSelection<S, T>() {
+
+    private var current: T? = null
+
+    override val hasValue: Boolean
+        get() = current != null
+
+    @Suppress("UNCHECKED_CAST")
+    override val value: T
+        get() = current as T
+
+    override fun update(state: S): Boolean {
+        val next = select(state) ?: return false
+        val previous = current
+        if (previous != null && isSame(previous, next)) {
+            return false
+        }
+        current = next
+        return true
+    }
+}
+
+/**
+ * Selection of one or more properties that compares every property with the value delivered last instead of
+ * building a tuple first, so a state that does not change the selected properties allocates no tuple. A new tuple is
+ * only created when the selection changed, it is the snapshot that is handed to the subscribers.
+ *
+ * Properties are read through generic functions, so a primitive property is boxed on every read. Selections of
+ * reference properties allocate nothing for an unchanged state, a primitive property allocates a box per read unless
+ * the value is cached by the boxing method, for example an `Int` between -128 and 127.
+ *
+ * @param byReference Compare properties by reference instead of with equals, see [isSameValue].
+ */
+internal abstract class MviPropertySelection<S, T : Any>(private val byReference: Boolean) : MviSelection<S, T>() {
+
+    protected var snapshot: T? = null
+
+    override val hasValue: Boolean
+        get() = snapshot != null
+
+    override val value: T
+        get() = snapshot!!
+
+    protected fun isSame(previous: Any?, current: Any?): Boolean = isSameValue(previous, current, byReference)
+}
+
+internal class MviPropertySelection1<S, P1>(
+    private val prop1: (S) -> P1,
+    byReference: Boolean
+) : MviPropertySelection<S, MviTuple1<P1>>(byReference) {
+
+    override fun update(state: S): Boolean {
+        val v1 = prop1(state)
+        val previous = snapshot
+        if (previous != null && isSame(previous.p1, v1)) {
+            return false
+        }
+        snapshot = MviTuple1(v1)
+        return true
+    }
+}
+
+internal class MviPropertySelection2<S, P1, P2>(
+    private val prop1: (S) -> P1,
+    private val prop2: (S) -> P2,
+    byReference: Boolean
+) : MviPropertySelection<S, MviTuple2<P1, P2>>(byReference) {
+
+    override fun update(state: S): Boolean {
+        val v1 = prop1(state)
+        val v2 = prop2(state)
+        val previous = snapshot
+        if (previous != null && isSame(previous.p1, v1) && isSame(previous.p2, v2)) {
+            return false
+        }
+        snapshot = MviTuple2(v1, v2)
+        return true
+    }
+}
+
+internal class MviPropertySelection3<S, P1, P2, P3>(
+    private val prop1: (S) -> P1,
+    private val prop2: (S) -> P2,
+    private val prop3: (S) -> P3,
+    byReference: Boolean
+) : MviPropertySelection<S, MviTuple3<P1, P2, P3>>(byReference) {
+
+    override fun update(state: S): Boolean {
+        val v1 = prop1(state)
+        val v2 = prop2(state)
+        val v3 = prop3(state)
+        val previous = snapshot
+        if (previous != null && isSame(previous.p1, v1) && isSame(previous.p2, v2) && isSame(previous.p3, v3)) {
+            return false
+        }
+        snapshot = MviTuple3(v1, v2, v3)
+        return true
+    }
+}
+
+internal class MviPropertySelection4<S, P1, P2, P3, P4>(
+    private val prop1: (S) -> P1,
+    private val prop2: (S) -> P2,
+    private val prop3: (S) -> P3,
+    private val prop4: (S) -> P4,
+    byReference: Boolean
+) : MviPropertySelection<S, MviTuple4<P1, P2, P3, P4>>(byReference) {
+
+    override fun update(state: S): Boolean {
+        val v1 = prop1(state)
+        val v2 = prop2(state)
+        val v3 = prop3(state)
+        val v4 = prop4(state)
+        val previous = snapshot
+        if (previous != null && isSame(previous.p1, v1) && isSame(previous.p2, v2) && isSame(previous.p3, v3) &&
+            isSame(previous.p4, v4)
+        ) {
+            return false
+        }
+        snapshot = MviTuple4(v1, v2, v3, v4)
+        return true
+    }
+}
+
+internal class MviPropertySelection5<S, P1, P2, P3, P4, P5>(
+    private val prop1: (S) -> P1,
+    private val prop2: (S) -> P2,
+    private val prop3: (S) -> P3,
+    private val prop4: (S) -> P4,
+    private val prop5: (S) -> P5,
+    byReference: Boolean
+) : MviPropertySelection<S, MviTuple5<P1, P2, P3, P4, P5>>(byReference) {
+
+    override fun update(state: S): Boolean {
+        val v1 = prop1(state)
+        val v2 = prop2(state)
+        val v3 = prop3(state)
+        val v4 = prop4(state)
+        val v5 = prop5(state)
+        val previous = snapshot
+        if (previous != null && isSame(previous.p1, v1) && isSame(previous.p2, v2) && isSame(previous.p3, v3) &&
+            isSame(previous.p4, v4) && isSame(previous.p5, v5)
+        ) {
+            return false
+        }
+        snapshot = MviTuple5(v1, v2, v3, v4, v5)
+        return true
+    }
+}
+
+internal class MviPropertySelection6<S, P1, P2, P3, P4, P5, P6>(
+    private val prop1: (S) -> P1,
+    private val prop2: (S) -> P2,
+    private val prop3: (S) -> P3,
+    private val prop4: (S) -> P4,
+    private val prop5: (S) -> P5,
+    private val prop6: (S) -> P6,
+    byReference: Boolean
+) : MviPropertySelection<S, MviTuple6<P1, P2, P3, P4, P5, P6>>(byReference) {
+
+    override fun update(state: S): Boolean {
+        val v1 = prop1(state)
+        val v2 = prop2(state)
+        val v3 = prop3(state)
+        val v4 = prop4(state)
+        val v5 = prop5(state)
+        val v6 = prop6(state)
+        val previous = snapshot
+        if (previous != null && isSame(previous.p1, v1) && isSame(previous.p2, v2) && isSame(previous.p3, v3) &&
+            isSame(previous.p4, v4) && isSame(previous.p5, v5) && isSame(previous.p6, v6)
+        ) {
+            return false
+        }
+        snapshot = MviTuple6(v1, v2, v3, v4, v5, v6)
+        return true
+    }
+}
+
+internal class MviPropertySelection7<S, P1, P2, P3, P4, P5, P6, P7>(
+    private val prop1: (S) -> P1,
+    private val prop2: (S) -> P2,
+    private val prop3: (S) -> P3,
+    private val prop4: (S) -> P4,
+    private val prop5: (S) -> P5,
+    private val prop6: (S) -> P6,
+    private val prop7: (S) -> P7,
+    byReference: Boolean
+) : MviPropertySelection<S, MviTuple7<P1, P2, P3, P4, P5, P6, P7>>(byReference) {
+
+    override fun update(state: S): Boolean {
+        val v1 = prop1(state)
+        val v2 = prop2(state)
+        val v3 = prop3(state)
+        val v4 = prop4(state)
+        val v5 = prop5(state)
+        val v6 = prop6(state)
+        val v7 = prop7(state)
+        val previous = snapshot
+        if (previous != null && isSame(previous.p1, v1) && isSame(previous.p2, v2) && isSame(previous.p3, v3) &&
+            isSame(previous.p4, v4) && isSame(previous.p5, v5) && isSame(previous.p6, v6) && isSame(previous.p7, v7)
+        ) {
+            return false
+        }
+        snapshot = MviTuple7(v1, v2, v3, v4, v5, v6, v7)
+        return true
+    }
+}
+
+internal class MviPropertySelection8<S, P1, P2, P3, P4, P5, P6, P7, P8>(
+    private val prop1: (S) -> P1,
+    private val prop2: (S) -> P2,
+    private val prop3: (S) -> P3,
+    private val prop4: (S) -> P4,
+    private val prop5: (S) -> P5,
+    private val prop6: (S) -> P6,
+    private val prop7: (S) -> P7,
+    private val prop8: (S) -> P8,
+    byReference: Boolean
+) : MviPropertySelection<S, MviTuple8<P1, P2, P3, P4, P5, P6, P7, P8>>(byReference) {
+
+    override fun update(state: S): Boolean {
+        val v1 = prop1(state)
+        val v2 = prop2(state)
+        val v3 = prop3(state)
+        val v4 = prop4(state)
+        val v5 = prop5(state)
+        val v6 = prop6(state)
+        val v7 = prop7(state)
+        val v8 = prop8(state)
+        val previous = snapshot
+        if (previous != null && isSame(previous.p1, v1) && isSame(previous.p2, v2) && isSame(previous.p3, v3) &&
+            isSame(previous.p4, v4) && isSame(previous.p5, v5) && isSame(previous.p6, v6) && isSame(previous.p7, v7) &&
+            isSame(previous.p8, v8)
+        ) {
+            return false
+        }
+        snapshot = MviTuple8(v1, v2, v3, v4, v5, v6, v7, v8)
+        return true
+    }
+}
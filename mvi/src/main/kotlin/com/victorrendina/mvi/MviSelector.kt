@@ -0,0 +1,17 @@
+package com.victorrendina.mvi
+
+/**
+ * Reads a single property of a state with a plain getter call. The `mvi-processor` annotation processor generates a
+ * `<State>Selectors` class for every [MviState] with one selector per property, which can be passed to
+ * `selectSubscribe` in place of a property reference to avoid reflection on every state emission.
+ *
+ * ```
+ * viewModel.selectSubscribe(CounterViewStateSelectors.count) { count -> ... }
+ * ```
+ *
+ * @param name Name of the selected property, used for debugging.
+ */
+abstract class MviSelector<in S, out P>(val name: String) : (S) -> P {
+
+    override fun toString(): String = "MviSelector($name)"
+}
@@ -0,0 +1,226 @@
+package com.victorrendina.mvi
+
+import io.reactivex.Observable
+import io.reactivex.Observer
+import io.reactivex.Scheduler
+import io.reactivex.disposables.Disposable
+import io.reactivex.exceptions.Exceptions
+import io.reactivex.plugins.RxJavaPlugins
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Delivers selections of the states emitted by [source] to all subscribers of a view model. Every selection is
+ * evaluated once per state on the thread that emitted it, and the subscribers of the selections that changed are
+ * invoked in subscription order by a single task on [scheduler], instead of every subscription posting its own
+ * message with `observeOn`.
+ *
+ * Subscriptions with the same key share their selection, so the selected properties are only read and compared once
+ * per state no matter how many subscribers there are.
+ *
+ * @param onIdle Called without holding the lock after the last selection was removed, the dispatcher may still get
+ * new subscriptions afterwards.
+ */
+internal class MviStateDispatcher<S : Any>(
+    private val source: Observable<S>,
+    scheduler: Scheduler,
+    private val onIdle: ((MviStateDispatcher<S>) -> Unit)? = null
+) : Disposable {
+
+    private val lock = Any()
+
+    // Guarded by lock
+    private val selections = HashMap<Any, MviSelection<S, *>>()
+    // Same selections as the map, iterated by index on every state so no iterator is allocated
+    private val selectionList = ArrayList<MviSelection<S, *>>()
+    private val subscriptions = ArrayList<Subscription<*>>()
+    private var latestState: S? = null
+    private var sourceSubscription: Disposable? = null
+    private var disposed = false
+
+    // Each batch holds pairs of a subscription and the value to deliver to it
+    private val pendingBatches = MviMpscQueue<ArrayList<Any?>>()
+    private val wip = AtomicInteger()
+    private val worker = scheduler.createWorker()
+    private val drainTask = Runnable { drain() }
+
+    /**
+     * Number of subscriptions that reused the selection of an earlier subscription with the same key.
+     */
+    @Volatile
+    var deduplicatedSelections = 0
+        private set
+
+    /**
+     * True if there are no selections because nothing subscribed yet or every subscription was disposed.
+     */
+    val isIdle: Boolean
+        get() = synchronized(lock) { selections.isEmpty() }
+
+    /**
+     * Deliver the selection identified by [key] to [observer] now and whenever it changes. [createSelection] is only
+     * called if there is no selection for the key yet.
+     */
+    fun <T> subscribe(key: Any, createSelection: () -> MviSelection<S, T>, observer: Observer<T>): Disposable {
+        val subscription = Subscription(observer)
+        // Lifecycle aware observers register with their owner here, which must not happen while holding the lock
+        observer.onSubscribe(subscription)
+
+        var batch: ArrayList<Any?>? = null
+        synchronized(lock) {
+            if (disposed || subscription.isDisposed) {
+                return subscription
+            }
+            connect()
+
+            @Suppress("UNCHECKED_CAST")
+            var selection = selections[key] as MviSelection<S, T>?
+            if (selection == null) {
+                selection = createSelection()
+                latestState?.let { selection.update(it) }
+                selections[key] = selection
+                selectionList.add(selection)
+            } else {
+                deduplicatedSelections++
+            }
+            selection.subscribers++
+            subscription.key = key
+            subscription.selection = selection
+            subscriptions.add(subscription)
+
+            // Queued while holding the lock so it can not be overtaken by the next state
+            if (selection.hasValue) {
+                batch = arrayListOf(subscription, selection.value)
+                pendingBatches.offer(batch!!)
+            }
+        }
+        if (batch != null) {
+            scheduleDrain()
+        }
+        return subscription
+    }
+
+    private fun connect() {
+        if (sourceSubscription == null) {
+            // The lock is reentrant so a source that emits while subscribing is handled like any other state
+            sourceSubscription = source.subscribe { onState(it) }
+        }
+    }
+
+    private fun onState(state: S) {
+        var batch: ArrayList<Any?>? = null
+        synchronized(lock) {
+            if (disposed) return
+            latestState = state
+            for (index in 0 until selectionList.size) {
+                val selection = selectionList[index]
+                selection.changed = selection.update(state)
+            }
+            for (index in 0 until subscriptions.size) {
+                val subscription = subscriptions[index]
+                val selection = subscription.selection!!
+                if (selection.changed) {
+                    val pending = batch ?: ArrayList<Any?>(subscriptions.size * 2).also { batch = it }
+                    pending.add(subscription)
+                    pending.add(selection.value)
+                }
+            }
+            batch?.let { pendingBatches.offer(it) }
+        }
+        if (batch != null) {
+            scheduleDrain()
+        }
+    }
+
+    private fun scheduleDrain() {
+        if (wip.getAndIncrement() == 0) {
+            worker.schedule(drainTask)
+        }
+    }
+
+    /**
+     * Runs on the delivery thread. Subscribers may subscribe or cause new states while being notified, the work
+     * counter makes sure those deliveries are queued behind the current batch instead of running inside it.
+     *
+     * A subscriber that throws must not stop the drain loop, the work counter would never return to zero and every
+     * later state would be dropped. The error is reported to [RxJavaPlugins.onError] and delivery continues with the
+     * next subscriber.
+     */
+    private fun drain() {
+        var missed = 1
+        while (true) {
+            while (true) {
+                val batch = pendingBatches.poll() ?: break
+                var index = 0
+                while (index < batch.size) {
+                    try {
+                        @Suppress("UNCHECKED_CAST")
+                        (batch[index] as Subscription<Any?>).deliver(batch[index + 1])
+                    } catch (e: Throwable) {
+                        Exceptions.throwIfFatal(e)
+                        RxJavaPlugins.onError(e)
+                    }
+                    index += 2
+                }
+            }
+            missed = wip.addAndGet(-missed)
+            if (missed == 0) {
+                return
+            }
+        }
+    }
+
+    private fun remove(subscription: Subscription<*>) {
+        val idle = synchronized(lock) {
+            if (!subscriptions.remove(subscription)) return
+            val selection = subscription.selection!!
+            selection.subscribers--
+            if (selection.subscribers == 0) {
+                selections.remove(subscription.key)
+                selectionList.remove(selection)
+            }
+            selections.isEmpty()
+        }
+        if (idle) {
+            onIdle?.invoke(this)
+        }
+    }
+
+    override fun isDisposed(): Boolean = synchronized(lock) { disposed }
+
+    override fun dispose() {
+        synchronized(lock) {
+            if (disposed) return
+            disposed = true
+            sourceSubscription?.dispose()
+            subscriptions.clear()
+            selections.clear()
+            selectionList.clear()
+        }
+        worker.dispose()
+    }
+
+    private inner class Subscription<T>(private val observer: Observer<T>) : Disposable {
+
+        // Set once while holding the lock before the subscription is added
+        var key: Any? = null
+        var selection: MviSelection<S, T>? = null
+
+        @Volatile
+        private var disposed = false
+
+        fun deliver(value: T) {
+            if (!disposed) {
+                observer.onNext(value)
+            }
+        }
+
+        override fun isDisposed(): Boolean = disposed
+
+        override fun dispose() {
+            if (!disposed) {
+                disposed = true
+                remove(this)
+            }
+        }
+    }
+}
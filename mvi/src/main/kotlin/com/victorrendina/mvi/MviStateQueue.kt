@@ -1,36 +1,76 @@
 package com.victorrendina.mvi
 
-import java.util.LinkedList
-
+/**
+ * Pending get and set state blocks for a state store. Blocks may be enqueued from any thread without locking, but they
+ * must be dequeued from the single thread that processes the store.
+ *
+ * Get blocks and [MviReducerPriority.BACKGROUND] set blocks share a single queue so they are processed in the order
+ * they were enqueued. A get block sees every set block queued before it and is never held back by set blocks queued
+ * after it. [MviReducerPriority.INTERACTIVE] set blocks have their own queue which is drained first, so they are also
+ * applied before any get block queued after them.
+ *
+ * Blocks are stored in the queue slots along with the time they were queued, so queueing a block allocates nothing
+ * beyond the queue segments.
+ */
 internal class MviStateQueue<S : MviState> {
 
-    private val getStateQueue = LinkedList<(state: S) -> Unit>()
-    private var setStateQueue = LinkedList<S.() -> S>()
+    // Get blocks are stored as they are, the lowest bit of their stamp tells them apart from set blocks
+    private val queue = MviMpscQueue<Function1<*, *>>()
+    private val interactiveQueue = MviMpscQueue<S.() -> S>()
+
+    /**
+     * Time in nanoseconds the most recently dequeued get or set block was queued. Only valid on the consumer thread.
+     */
+    val lastBlockEnqueuedAtNanos: Long
+        get() = lastDequeuedFrom.lastPolledStamp and GET_BLOCK_FLAG.inv()
+
+    private var lastDequeuedFrom: MviMpscQueue<*> = queue
 
-    @Synchronized
     fun enqueueGetStateBlock(block: (state: S) -> Unit) {
-        getStateQueue.add(block)
+        queue.offer(block, System.nanoTime() or GET_BLOCK_FLAG)
     }
 
-    @Synchronized
-    fun enqueueSetStateBlock(block: S.() -> S) {
-        setStateQueue.add(block)
+    fun enqueueSetStateBlock(block: S.() -> S, priority: MviReducerPriority = MviReducerPriority.BACKGROUND) {
+        when (priority) {
+            MviReducerPriority.INTERACTIVE -> interactiveQueue.offer(block, System.nanoTime())
+            MviReducerPriority.BACKGROUND -> queue.offer(block, System.nanoTime() and GET_BLOCK_FLAG.inv())
+        }
     }
 
-    @Synchronized
+    /**
+     * Remove the get block at the head of the queue. Returns null if the queue is empty or a set block is next.
+     */
     fun dequeueGetStateBlock(): ((state: S) -> Unit)? {
-        if (getStateQueue.isEmpty()) return null
+        queue.peek() ?: return null
+        if (queue.lastPeekedStamp and GET_BLOCK_FLAG == 0L) return null
+        lastDequeuedFrom = queue
+        @Suppress("UNCHECKED_CAST")
+        return queue.poll() as (S) -> Unit
+    }
 
-        return getStateQueue.removeFirst()
+    /**
+     * Remove the next interactive set block. Returns null if there are none.
+     */
+    fun dequeueInteractiveSetStateBlock(): (S.() -> S)? {
+        val block = interactiveQueue.poll() ?: return null
+        lastDequeuedFrom = interactiveQueue
+        return block
     }
 
-    @Synchronized
-    fun dequeueAllSetStateBlocks(): List<(S.() -> S)>? {
-        // do not allocate empty queue for no-op flushes
-        if (setStateQueue.isEmpty()) return null
+    /**
+     * Remove the background set block at the head of the queue. Returns null if the queue is empty or a get block is
+     * next.
+     */
+    fun dequeueSetStateBlock(): (S.() -> S)? {
+        queue.peek() ?: return null
+        if (queue.lastPeekedStamp and GET_BLOCK_FLAG != 0L) return null
+        lastDequeuedFrom = queue
+        @Suppress("UNCHECKED_CAST")
+        return queue.poll() as S.() -> S
+    }
 
-        val queue = setStateQueue
-        setStateQueue = LinkedList()
-        return queue
+    private companion object {
+        // Costs the queue times one nanosecond of precision
+        const val GET_BLOCK_FLAG = 1L
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,53 @@
 package com.victorrendina.mvi
 
+import com.victorrendina.mvi.extensions.toConflatedFlow
 import io.reactivex.Observable
 import io.reactivex.disposables.Disposable
+import kotlinx.coroutines.flow.Flow
 
 interface MviStateStore<S : MviState> : Disposable {
     val state: S
     fun get(block: (S) -> Unit)
     fun set(reducer: S.() -> S)
+
+    /**
+     * Queue a reducer in the given lane. Stores without priority lanes treat every reducer as
+     * [MviReducerPriority.BACKGROUND].
+     */
+    fun set(priority: MviReducerPriority, reducer: S.() -> S) {
+        set(reducer)
+    }
+
+    /**
+     * Every state instance published by the store. A reducer that returns the state it received does not produce an
+     * emission, but states that are equal to the previous one are still emitted if they are a different instance.
+     */
     val observable: Observable<S>
-}
\ No newline at end of file
+
+    /**
+     * Number of times the store published a state that is a different instance than the previous one. Comparing
+     * versions is a cheap replacement for comparing states with `equals`.
+     */
+    val version: Long
+
+    /**
+     * Every new state instance as a [Flow] for coroutine consumers, the same states [observable] emits. Slow
+     * collectors only see the latest state. By default this bridges [observable], which costs a channel hand off per
+     * emission, stores built on coroutines return their state flow directly.
+     */
+    val flow: Flow<S>
+        get() = observable.toConflatedFlow()
+
+    /**
+     * Work counters for this store or null if the implementation does not record any.
+     */
+    val metrics: MviStateStoreMetrics?
+        get() = null
+
+    /**
+     * True if [observable] always emits on the main thread, which lets subscribers on the main thread receive state
+     * without posting another message to the main looper.
+     */
+    val emitsOnMainThread: Boolean
+        get() = false
+}
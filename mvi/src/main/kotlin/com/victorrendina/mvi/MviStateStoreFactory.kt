@@ -0,0 +1,86 @@
+package com.victorrendina.mvi
+
+/**
+ * Creates the [MviStateStore] backing a view model. Pass a factory to the [BaseMviViewModel] constructor to choose the
+ * store implementation per view model, for example from an injected view model factory.
+ */
+interface MviStateStoreFactory {
+
+    fun <S : MviState> create(initialState: S): MviStateStore<S>
+
+    companion object {
+
+        /**
+         * Every store processes its reducers on a dedicated thread.
+         */
+        val WORKER: MviStateStoreFactory = worker(QueuedMviStateStore.DEFAULT_MAX_REDUCER_BATCH_SIZE)
+
+        /**
+         * Stores process their reducers on a serial lane of the shared [MviStateStorePool].
+         */
+        val POOLED: MviStateStoreFactory = pooled(QueuedMviStateStore.DEFAULT_MAX_REDUCER_BATCH_SIZE)
+
+        /**
+         * Stores process their reducers on the main thread, synchronously when they are called from the main thread.
+         * Meant for view models that only update state from UI callbacks and do little work in their reducers.
+         */
+        val IMMEDIATE: MviStateStoreFactory = object : MviStateStoreFactory {
+            override fun <S : MviState> create(initialState: S): MviStateStore<S> =
+                WorkerMviStateStore.immediate(initialState)
+        }
+
+        /**
+         * Stores keep their state in a `StateFlow` and process reducers on a serial lane of the shared
+         * [MviStateStorePool]. Use this for view models observed from coroutines with [BaseMviViewModel.selectFlow].
+         */
+        val STATE_FLOW: MviStateStoreFactory = stateFlow(QueuedMviStateStore.DEFAULT_MAX_REDUCER_BATCH_SIZE)
+
+        /**
+         * Uses [POOLED] if [Mvi.useSharedStorePool] is enabled when the store is created and [WORKER] otherwise.
+         */
+        val DEFAULT: MviStateStoreFactory = object : MviStateStoreFactory {
+            override fun <S : MviState> create(initialState: S): MviStateStore<S> =
+                if (Mvi.useSharedStorePool) POOLED.create(initialState) else WORKER.create(initialState)
+        }
+
+        /**
+         * Same as [WORKER] but publishes a new state after at most [maxReducerBatchSize] reducers during a burst. Lower
+         * values let subscribers see progress more often at the cost of more emissions, [WORKER] uses 64.
+         */
+        @JvmStatic
+        fun worker(maxReducerBatchSize: Int): MviStateStoreFactory = object : MviStateStoreFactory {
+            override fun <S : MviState> create(initialState: S): MviStateStore<S> =
+                WorkerMviStateStore(initialState, maxReducerBatchSize = maxReducerBatchSize)
+        }
+
+        /**
+         * Same as [POOLED] with a custom reducer batch size, see [worker].
+         */
+        @JvmStatic
+        fun pooled(maxReducerBatchSize: Int): MviStateStoreFactory = object : MviStateStoreFactory {
+            override fun <S : MviState> create(initialState: S): MviStateStore<S> =
+                WorkerMviStateStore.pooled(initialState, maxReducerBatchSize)
+        }
+
+        /**
+         * Same as [STATE_FLOW] with a custom reducer batch size, see [worker].
+         */
+        @JvmStatic
+        fun stateFlow(maxReducerBatchSize: Int): MviStateStoreFactory = object : MviStateStoreFactory {
+            override fun <S : MviState> create(initialState: S): MviStateStore<S> =
+                StateFlowMviStateStore.pooled(initialState, maxReducerBatchSize)
+        }
+
+        /**
+         * Wraps every store created by [delegate] in an [InstrumentedMviStateStore] reporting to [listener].
+         */
+        @JvmStatic
+        fun instrumented(
+            delegate: MviStateStoreFactory,
+            listener: InstrumentedMviStateStore.Listener
+        ): MviStateStoreFactory = object : MviStateStoreFactory {
+            override fun <S : MviState> create(initialState: S): MviStateStore<S> =
+                InstrumentedMviStateStore(delegate.create(initialState), initialState::class.java.simpleName, listener)
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.victorrendina.mvi
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Counters describing the work done by a state store. The values are updated by the store and can be read from any
+ * thread, for example to log them periodically in a performance build.
+ */
+class MviStateStoreMetrics internal constructor() {
+
+    private val drains = AtomicLong()
+
+    // The remaining values are only written from the store thread
+    @Volatile
+    private var reducers = 0L
+    @Volatile
+    private var getBlocks = 0L
+    @Volatile
+    private var maxBatch = 0
+    @Volatile
+    private var maxGetWait = 0L
+
+    // Indexed by MviReducerPriority.ordinal
+    private val laneReducers = AtomicLongArray(LANES)
+    private val laneTotalDelay = AtomicLongArray(LANES)
+    private val laneMaxDelay = AtomicLongArray(LANES)
+
+    /**
+     * Number of tasks the store has scheduled on its thread. A burst of reducers should only schedule a single task.
+     */
+    val scheduledDrains: Long
+        get() = drains.get()
+
+    /**
+     * Number of reducers that have been folded into the state.
+     */
+    val reducersProcessed: Long
+        get() = reducers
+
+    /**
+     * Number of get state blocks that have been run.
+     */
+    val getBlocksProcessed: Long
+        get() = getBlocks
+
+    /**
+     * Largest number of reducers folded into a single emitted state.
+     */
+    val maxReducerBatchSize: Int
+        get() = maxBatch
+
+    /**
+     * Longest time in nanoseconds a get state block waited between being queued and being run.
+     */
+    val maxGetBlockWaitNanos: Long
+        get() = maxGetWait
+
+    /**
+     * Number of reducers queued in the given lane that have been folded into the state.
+     */
+    fun reducersProcessed(priority: MviReducerPriority): Long = laneReducers.get(priority.ordinal)
+
+    /**
+     * Average time in nanoseconds reducers in the given lane waited between being queued and being run.
+     */
+    fun averageQueueDelayNanos(priority: MviReducerPriority): Long {
+        val count = laneReducers.get(priority.ordinal)
+        return if (count == 0L) 0 else laneTotalDelay.get(priority.ordinal) / count
+    }
+
+    /**
+     * Longest time in nanoseconds a reducer in the given lane waited between being queued and being run.
+     */
+    fun maxQueueDelayNanos(priority: MviReducerPriority): Long = laneMaxDelay.get(priority.ordinal)
+
+    /**
+     * Clear [maxReducerBatchSize], [maxGetBlockWaitNanos] and [maxQueueDelayNanos] so a new measurement window can be
+     * started.
+     */
+    fun resetMaximums() {
+        maxBatch = 0
+        maxGetWait = 0
+        for (lane in 0 until LANES) {
+            laneMaxDelay.set(lane, 0)
+        }
+    }
+
+    internal fun onDrainScheduled() {
+        drains.incrementAndGet()
+    }
+
+    internal fun onReducerBatch(size: Int) {
+        reducers += size
+        if (size > maxBatch) {
+            maxBatch = size
+        }
+    }
+
+    internal fun onReducerDequeued(priority: MviReducerPriority, delayNanos: Long) {
+        val lane = priority.ordinal
+        laneReducers.lazySet(lane, laneReducers.get(lane) + 1)
+        laneTotalDelay.lazySet(lane, laneTotalDelay.get(lane) + delayNanos)
+        if (delayNanos > laneMaxDelay.get(lane)) {
+            laneMaxDelay.lazySet(lane, delayNanos)
+        }
+    }
+
+    internal fun onGetBlock(waitNanos: Long) {
+        getBlocks++
+        if (waitNanos > maxGetWait) {
+            maxGetWait = waitNanos
+        }
+    }
+
+    override fun toString(): String =
+        "MviStateStoreMetrics(scheduledDrains=$scheduledDrains, reducersProcessed=$reducersProcessed, " +
+            "getBlocksProcessed=$getBlocksProcessed, maxReducerBatchSize=$maxReducerBatchSize, " +
+            "maxGetBlockWaitNanos=$maxGetBlockWaitNanos, " +
+            "interactiveDelayNanos(avg=${averageQueueDelayNanos(MviReducerPriority.INTERACTIVE)}, " +
+            "max=${maxQueueDelayNanos(MviReducerPriority.INTERACTIVE)}), " +
+            "backgroundDelayNanos(avg=${averageQueueDelayNanos(MviReducerPriority.BACKGROUND)}, " +
+            "max=${maxQueueDelayNanos(MviReducerPriority.BACKGROUND)}))"
+
+    private companion object {
+        val LANES = MviReducerPriority.values().size
+    }
+}
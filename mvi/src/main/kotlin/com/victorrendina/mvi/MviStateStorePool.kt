@@ -0,0 +1,96 @@
+package com.victorrendina.mvi
+
+import io.reactivex.Scheduler
+import io.reactivex.disposables.Disposable
+import io.reactivex.schedulers.Schedulers
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * A small pool of threads shared by every state store that does not need a dedicated thread. Each store is given its
+ * own serial lane on the pool so reducers for a single store still run one at a time and in the order they were
+ * queued, but a store that is idle does not hold on to an OS thread.
+ *
+ * Enable it for all view models with [Mvi.useSharedStorePool].
+ */
+object MviStateStorePool {
+
+    private const val KEEP_ALIVE_SECONDS = 30L
+
+    /**
+     * Maximum number of threads in the pool, one per available core.
+     */
+    @JvmStatic
+    val poolSize: Int = Runtime.getRuntime().availableProcessors().coerceAtLeast(1)
+
+    private val threadCount = AtomicInteger()
+    private val laneCount = AtomicInteger()
+
+    private val executor = ThreadPoolExecutor(
+        poolSize,
+        poolSize,
+        KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS,
+        LinkedBlockingQueue<Runnable>(),
+        ThreadFactory { runnable ->
+            Thread(runnable, "mvi-store-${threadCount.incrementAndGet()}").apply { isDaemon = true }
+        }
+    ).apply {
+        // Let the pool shrink back to zero threads when no store has work to do
+        allowCoreThreadTimeOut(true)
+    }
+
+    private val scheduler: Scheduler = Schedulers.from(executor)
+
+    /**
+     * Number of state stores that currently hold a lane on the pool.
+     */
+    @JvmStatic
+    val activeLanes: Int
+        get() = laneCount.get()
+
+    /**
+     * Number of threads currently alive in the pool. Idle threads are released after [KEEP_ALIVE_SECONDS].
+     */
+    @JvmStatic
+    val activeThreads: Int
+        get() = executor.poolSize
+
+    /**
+     * Number of threads that are running state store work right now.
+     */
+    @JvmStatic
+    val busyThreads: Int
+        get() = executor.activeCount
+
+    /**
+     * Create a new serial lane on the pool. Work scheduled on the lane never runs concurrently with other work on the
+     * same lane. The lane must be disposed when its owner is disposed.
+     */
+    internal fun createLane(): Scheduler.Worker = Lane(scheduler.createWorker())
+
+    private class Lane(private val delegate: Scheduler.Worker) : Scheduler.Worker() {
+
+        private val disposed = AtomicBoolean(false)
+
+        init {
+            laneCount.incrementAndGet()
+        }
+
+        override fun schedule(run: Runnable, delay: Long, unit: TimeUnit): Disposable =
+            delegate.schedule(run, delay, unit)
+
+        override fun isDisposed(): Boolean = disposed.get()
+
+        override fun dispose() {
+            if (disposed.compareAndSet(false, true)) {
+                laneCount.decrementAndGet()
+                delegate.dispose()
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.victorrendina.mvi
+
+/**
+ * Receives the cost of every state subscription while it is set as [Mvi.subscriptionListener]. Deliveries are
+ * reported on the thread that called the subscriber, which is the main thread for views.
+ *
+ * Subscription counts are the number of live instrumented subscriptions of the view model and of the lifecycle owner
+ * after the change, the owner count is zero for subscriptions made by the view model itself.
+ */
+interface MviSubscriptionListener {
+
+    fun onSubscribed(stats: MviSubscriptionStats, viewModelSubscriptions: Int, ownerSubscriptions: Int) {}
+
+    fun onUnsubscribed(stats: MviSubscriptionStats, viewModelSubscriptions: Int, ownerSubscriptions: Int) {}
+
+    /**
+     * Called after the subscriber returned.
+     */
+    fun onDelivered(stats: MviSubscriptionStats, durationNanos: Long) {}
+
+    /**
+     * Called in addition to [onDelivered] when the subscriber took longer than [Mvi.subscriberFrameBudgetNanos].
+     */
+    fun onFrameBudgetExceeded(stats: MviSubscriptionStats, durationNanos: Long) {}
+}
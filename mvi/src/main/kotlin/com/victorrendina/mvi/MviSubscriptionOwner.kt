@@ -0,0 +1,13 @@
+package com.victorrendina.mvi
+
+import androidx.lifecycle.LifecycleOwner
+
+/**
+ * Lifecycle owner passed by [MviView] for subscriptions that choose whether they are detached while the view is
+ * stopped, instead of following [Mvi.detachStoppedSubscribers]. The view model unwraps it and subscribes with the
+ * original [owner].
+ */
+internal class MviSubscriptionOwner(
+    val owner: LifecycleOwner,
+    val detachWhenStopped: Boolean
+) : LifecycleOwner by owner
@@ -0,0 +1,51 @@
+package com.victorrendina.mvi
+
+/**
+ * Delivery counters of a single subscription. Updated on the thread that calls the subscriber and safe to read from
+ * any thread.
+ *
+ * @param viewModel Simple class name of the view model.
+ * @param owner Simple class name of the lifecycle owner or null for subscriptions made by the view model itself.
+ * @param selection The selected properties, or `state` for subscriptions to the whole state.
+ */
+class MviSubscriptionStats internal constructor(
+    val viewModel: String,
+    val owner: String?,
+    val selection: String
+) {
+
+    @Volatile
+    var deliveries = 0L
+        private set
+
+    @Volatile
+    var totalDurationNanos = 0L
+        private set
+
+    @Volatile
+    var maxDurationNanos = 0L
+        private set
+
+    /**
+     * Number of deliveries that took longer than [Mvi.subscriberFrameBudgetNanos].
+     */
+    @Volatile
+    var framesOverBudget = 0L
+        private set
+
+    internal fun onDelivered(durationNanos: Long, overBudget: Boolean) {
+        deliveries++
+        totalDurationNanos += durationNanos
+        if (durationNanos > maxDurationNanos) {
+            maxDurationNanos = durationNanos
+        }
+        if (overBudget) {
+            framesOverBudget++
+        }
+    }
+
+    override fun toString(): String =
+        "MviSubscriptionStats(viewModel=$viewModel, owner=$owner, selection=$selection, deliveries=$deliveries, " +
+            "totalDurationNanos=$totalDurationNanos, maxDurationNanos=$maxDurationNanos, " +
+            "framesOverBudget=$framesOverBudget)"
+}
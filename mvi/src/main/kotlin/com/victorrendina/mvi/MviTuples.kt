@@ -3,4 +3,32 @@ package com.victorrendina.mvi
 internal data class MviTuple1<P1>(val p1: P1)
 internal data class MviTuple2<P1, P2>(val p1: P1, val p2: P2)
 internal data class MviTuple3<P1, P2, P3>(val p1: P1, val p2: P2, val p3: P3)
-internal data class MviTuple4<P1, P2, P3, P4>(val p1: P1, val p2: P2, val p3: P3, val p4: P4)
\ No newline at end of file
+internal data class MviTuple4<P1, P2, P3, P4>(val p1: P1, val p2: P2, val p3: P3, val p4: P4)
+internal data class MviTuple5<P1, P2, P3, P4, P5>(val p1: P1, val p2: P2, val p3: P3, val p4: P4, val p5: P5)
+internal data class MviTuple6<P1, P2, P3, P4, P5, P6>(
+    val p1: P1,
+    val p2: P2,
+    val p3: P3,
+    val p4: P4,
+    val p5: P5,
+    val p6: P6
+)
+internal data class MviTuple7<P1, P2, P3, P4, P5, P6, P7>(
+    val p1: P1,
+    val p2: P2,
+    val p3: P3,
+    val p4: P4,
+    val p5: P5,
+    val p6: P6,
+    val p7: P7
+)
+internal data class MviTuple8<P1, P2, P3, P4, P5, P6, P7, P8>(
+    val p1: P1,
+    val p2: P2,
+    val p3: P3,
+    val p4: P4,
+    val p5: P5,
+    val p6: P6,
+    val p7: P7,
+    val p8: P8
+)
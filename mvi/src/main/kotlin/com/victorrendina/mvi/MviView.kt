@@ -1,6 +1,7 @@
 package com.victorrendina.mvi
 
 import androidx.lifecycle.LifecycleOwner
+import kotlin.reflect.KClass
 import kotlin.reflect.KProperty1
 
 interface MviView : LifecycleOwner {
@@ -12,6 +13,20 @@ interface MviView : LifecycleOwner {
         subscribe(this@MviView, subscriber)
     }
 
+    /**
+     * Subscribes to all state updates for the given viewModel.
+     *
+     * @param detachWhenStopped Disconnect this subscription while the view is stopped instead of buffering the last
+     * state, see [Mvi.detachStoppedSubscribers]. The other subscribe and select subscribe methods have an overload with
+     * this parameter before the subscriber as well, subscriptions without it follow the global flag.
+     */
+    fun <S : MviState, A : MviArgs> BaseMviViewModel<S, A>.subscribe(
+        detachWhenStopped: Boolean,
+        subscriber: (S) -> Unit
+    ) {
+        subscribe(subscriptionOwner(detachWhenStopped), subscriber)
+    }
+
     /**
      * Subscribes to the message queue for the given viewModel.
      */
@@ -19,6 +34,17 @@ interface MviView : LifecycleOwner {
         subscribeMessages(this@MviView, subscriber)
     }
 
+    /**
+     * Subscribes to messages of a single type for the given viewModel, messages of other types are not delivered.
+     * Primitive types like `Int::class` receive their boxed messages.
+     */
+    fun <S : MviState, A : MviArgs, T : Any> BaseMviViewModel<S, A>.subscribeMessages(
+        type: KClass<T>,
+        subscriber: (T) -> Unit
+    ) {
+        subscribeMessages(this@MviView, type.javaObjectType, subscriber)
+    }
+
     /**
      * Subscribes to state changes for only a specific property and calls the subscribe with
      * only that single property.
@@ -28,6 +54,12 @@ interface MviView : LifecycleOwner {
         subscriber: (P) -> Unit
     ) = selectSubscribe(this@MviView, prop1, subscriber)
 
+    fun <S : MviState, A : MviArgs, P> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P>,
+        detachWhenStopped: Boolean,
+        subscriber: (P) -> Unit
+    ) = selectSubscribe(subscriptionOwner(detachWhenStopped), prop1, subscriber)
+
     /**
      * Subscribes to state changes for the result of a mapper on a specific property and calls the subscribe with
      * only that single property.
@@ -37,6 +69,14 @@ interface MviView : LifecycleOwner {
         mapper: (P) -> V?,
         subscriber: (V) -> Unit
     ) = selectSubscribe(this@MviView, prop1, mapper, subscriber)
+
+    fun <S : MviState, A : MviArgs, P, V> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P>,
+        mapper: (P) -> V?,
+        detachWhenStopped: Boolean,
+        subscriber: (V) -> Unit
+    ) = selectSubscribe(subscriptionOwner(detachWhenStopped), prop1, mapper, subscriber)
+
     /**
      * Subscribe to changes in an async property. There are optional parameters for onSuccess
      * and onFail which automatically unwrap the value or error.
@@ -47,6 +87,13 @@ interface MviView : LifecycleOwner {
         onSuccess: ((T) -> Unit)? = null
     ) = asyncSubscribe(this@MviView, asyncProp, onFail, onSuccess)
 
+    fun <S : MviState, A : MviArgs, T> BaseMviViewModel<S, A>.asyncSubscribe(
+        asyncProp: KProperty1<S, Async<T>>,
+        detachWhenStopped: Boolean,
+        onFail: ((Throwable) -> Unit)? = null,
+        onSuccess: ((T) -> Unit)? = null
+    ) = asyncSubscribe(subscriptionOwner(detachWhenStopped), asyncProp, onFail, onSuccess)
+
     /**
      * Subscribes to state changes for two properties.
      */
@@ -56,6 +103,13 @@ interface MviView : LifecycleOwner {
         subscriber: (P1, P2) -> Unit
     ) = selectSubscribe(this@MviView, prop1, prop2, subscriber)
 
+    fun <S : MviState, A : MviArgs, P1, P2> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2) -> Unit
+    ) = selectSubscribe(subscriptionOwner(detachWhenStopped), prop1, prop2, subscriber)
+
     /**
      * Subscribes to state changes for three properties.
      */
@@ -66,6 +120,14 @@ interface MviView : LifecycleOwner {
         subscriber: (P1, P2, P3) -> Unit
     ) = selectSubscribe(this@MviView, prop1, prop2, prop3, subscriber)
 
+    fun <S : MviState, A : MviArgs, P1, P2, P3> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3) -> Unit
+    ) = selectSubscribe(subscriptionOwner(detachWhenStopped), prop1, prop2, prop3, subscriber)
+
     /**
      * Subscribes to state changes for four properties.
      */
@@ -76,4 +138,303 @@ interface MviView : LifecycleOwner {
         prop4: KProperty1<S, P4>,
         subscriber: (P1, P2, P3, P4) -> Unit
     ) = selectSubscribe(this@MviView, prop1, prop2, prop3, prop4, subscriber)
-}
\ No newline at end of file
+
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3, P4) -> Unit
+    ) = selectSubscribe(subscriptionOwner(detachWhenStopped), prop1, prop2, prop3, prop4, subscriber)
+
+    /**
+     * Subscribes to state changes for five properties.
+     */
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        subscriber: (P1, P2, P3, P4, P5) -> Unit
+    ) = selectSubscribe(this@MviView, prop1, prop2, prop3, prop4, prop5, subscriber)
+
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3, P4, P5) -> Unit
+    ) = selectSubscribe(subscriptionOwner(detachWhenStopped), prop1, prop2, prop3, prop4, prop5, subscriber)
+
+    /**
+     * Subscribes to state changes for six properties.
+     */
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        subscriber: (P1, P2, P3, P4, P5, P6) -> Unit
+    ) = selectSubscribe(this@MviView, prop1, prop2, prop3, prop4, prop5, prop6, subscriber)
+
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3, P4, P5, P6) -> Unit
+    ) = selectSubscribe(subscriptionOwner(detachWhenStopped), prop1, prop2, prop3, prop4, prop5, prop6, subscriber)
+
+    /**
+     * Subscribes to state changes for seven properties.
+     */
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6, P7> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        prop7: KProperty1<S, P7>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7) -> Unit
+    ) = selectSubscribe(this@MviView, prop1, prop2, prop3, prop4, prop5, prop6, prop7, subscriber)
+
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6, P7> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        prop7: KProperty1<S, P7>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7) -> Unit
+    ) = selectSubscribe(
+        subscriptionOwner(detachWhenStopped), prop1, prop2, prop3, prop4, prop5, prop6, prop7, subscriber
+    )
+
+    /**
+     * Subscribes to state changes for eight properties.
+     */
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6, P7, P8> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        prop7: KProperty1<S, P7>,
+        prop8: KProperty1<S, P8>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7, P8) -> Unit
+    ) = selectSubscribe(this@MviView, prop1, prop2, prop3, prop4, prop5, prop6, prop7, prop8, subscriber)
+
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6, P7, P8> BaseMviViewModel<S, A>.selectSubscribe(
+        prop1: KProperty1<S, P1>,
+        prop2: KProperty1<S, P2>,
+        prop3: KProperty1<S, P3>,
+        prop4: KProperty1<S, P4>,
+        prop5: KProperty1<S, P5>,
+        prop6: KProperty1<S, P6>,
+        prop7: KProperty1<S, P7>,
+        prop8: KProperty1<S, P8>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7, P8) -> Unit
+    ) = selectSubscribe(
+        subscriptionOwner(detachWhenStopped), prop1, prop2, prop3, prop4, prop5, prop6, prop7, prop8, subscriber
+    )
+
+    /**
+     * Subscribes to state changes for a single property read by generated selectors, which do not use reflection.
+     */
+    fun <S : MviState, A : MviArgs, P> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P>,
+        subscriber: (P) -> Unit
+    ) = selectSubscribe(this@MviView, selector1, subscriber)
+
+    fun <S : MviState, A : MviArgs, P> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P>,
+        detachWhenStopped: Boolean,
+        subscriber: (P) -> Unit
+    ) = selectSubscribe(subscriptionOwner(detachWhenStopped), selector1, subscriber)
+
+    /**
+     * Subscribes to state changes for two properties read by generated selectors, which do not use reflection.
+     */
+    fun <S : MviState, A : MviArgs, P1, P2> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        subscriber: (P1, P2) -> Unit
+    ) = selectSubscribe(this@MviView, selector1, selector2, subscriber)
+
+    fun <S : MviState, A : MviArgs, P1, P2> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2) -> Unit
+    ) = selectSubscribe(subscriptionOwner(detachWhenStopped), selector1, selector2, subscriber)
+
+    /**
+     * Subscribes to state changes for three properties read by generated selectors, which do not use reflection.
+     */
+    fun <S : MviState, A : MviArgs, P1, P2, P3> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        subscriber: (P1, P2, P3) -> Unit
+    ) = selectSubscribe(this@MviView, selector1, selector2, selector3, subscriber)
+
+    fun <S : MviState, A : MviArgs, P1, P2, P3> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3) -> Unit
+    ) = selectSubscribe(subscriptionOwner(detachWhenStopped), selector1, selector2, selector3, subscriber)
+
+    /**
+     * Subscribes to state changes for four properties read by generated selectors, which do not use reflection.
+     */
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        subscriber: (P1, P2, P3, P4) -> Unit
+    ) = selectSubscribe(this@MviView, selector1, selector2, selector3, selector4, subscriber)
+
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3, P4) -> Unit
+    ) = selectSubscribe(subscriptionOwner(detachWhenStopped), selector1, selector2, selector3, selector4, subscriber)
+
+    /**
+     * Subscribes to state changes for five properties read by generated selectors, which do not use reflection.
+     */
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        subscriber: (P1, P2, P3, P4, P5) -> Unit
+    ) = selectSubscribe(this@MviView, selector1, selector2, selector3, selector4, selector5, subscriber)
+
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3, P4, P5) -> Unit
+    ) = selectSubscribe(
+        subscriptionOwner(detachWhenStopped), selector1, selector2, selector3, selector4, selector5, subscriber
+    )
+
+    /**
+     * Subscribes to state changes for six properties read by generated selectors, which do not use reflection.
+     */
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        subscriber: (P1, P2, P3, P4, P5, P6) -> Unit
+    ) = selectSubscribe(this@MviView, selector1, selector2, selector3, selector4, selector5, selector6, subscriber)
+
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3, P4, P5, P6) -> Unit
+    ) = selectSubscribe(
+        subscriptionOwner(detachWhenStopped), selector1, selector2, selector3, selector4, selector5, selector6,
+        subscriber
+    )
+
+    /**
+     * Subscribes to state changes for seven properties read by generated selectors, which do not use reflection.
+     */
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6, P7> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        selector7: MviSelector<S, P7>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7) -> Unit
+    ) = selectSubscribe(
+        this@MviView, selector1, selector2, selector3, selector4, selector5, selector6, selector7, subscriber
+    )
+
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6, P7> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        selector7: MviSelector<S, P7>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7) -> Unit
+    ) = selectSubscribe(
+        subscriptionOwner(detachWhenStopped), selector1, selector2, selector3, selector4, selector5, selector6,
+        selector7, subscriber
+    )
+
+    /**
+     * Subscribes to state changes for eight properties read by generated selectors, which do not use reflection.
+     */
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6, P7, P8> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        selector7: MviSelector<S, P7>,
+        selector8: MviSelector<S, P8>,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7, P8) -> Unit
+    ) = selectSubscribe(
+        this@MviView, selector1, selector2, selector3, selector4, selector5, selector6, selector7, selector8, subscriber
+    )
+
+    fun <S : MviState, A : MviArgs, P1, P2, P3, P4, P5, P6, P7, P8> BaseMviViewModel<S, A>.selectSubscribe(
+        selector1: MviSelector<S, P1>,
+        selector2: MviSelector<S, P2>,
+        selector3: MviSelector<S, P3>,
+        selector4: MviSelector<S, P4>,
+        selector5: MviSelector<S, P5>,
+        selector6: MviSelector<S, P6>,
+        selector7: MviSelector<S, P7>,
+        selector8: MviSelector<S, P8>,
+        detachWhenStopped: Boolean,
+        subscriber: (P1, P2, P3, P4, P5, P6, P7, P8) -> Unit
+    ) = selectSubscribe(
+        subscriptionOwner(detachWhenStopped), selector1, selector2, selector3, selector4, selector5, selector6,
+        selector7, selector8, subscriber
+    )
+
+    private fun subscriptionOwner(detachWhenStopped: Boolean): LifecycleOwner =
+        MviSubscriptionOwner(this, detachWhenStopped)
+}
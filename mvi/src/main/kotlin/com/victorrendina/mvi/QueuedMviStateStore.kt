@@ -0,0 +1,151 @@
+package com.victorrendina.mvi
+
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Base class for state stores that queue get and set blocks and process them in a single drain loop. Subclasses
+ * decide where the drain loop runs and how new states are published.
+ *
+ * @param maxReducerBatchSize Maximum number of reducers folded into one state before it is published. Lower values
+ * publish progress more often during long bursts of reducers at the cost of more emissions. Configurable through the
+ * [MviStateStoreFactory] functions.
+ */
+internal abstract class QueuedMviStateStore<S : MviState>(
+    private val maxReducerBatchSize: Int
+) : MviStateStore<S> {
+
+    init {
+        require(maxReducerBatchSize > 0) { "Reducer batch size must be positive but was $maxReducerBatchSize" }
+    }
+
+    private val queue = MviStateQueue<S>()
+
+    // Number of get or set calls that have not been observed by the drain loop yet
+    private val wip = AtomicInteger()
+    private val drainTask = Runnable { drain() }
+
+    override val metrics = MviStateStoreMetrics()
+
+    // Only written from the store thread
+    @Volatile
+    final override var version = 0L
+        private set
+
+    /**
+     * Run the task on the thread that processes this store. Tasks must never run concurrently with each other.
+     */
+    protected abstract fun schedule(task: Runnable)
+
+    /**
+     * Publish a new state to subscribers. Called from the thread that processes this store and only with a state that
+     * is a different instance than the current one.
+     */
+    protected abstract fun publish(state: S)
+
+    /**
+     * Get the current state. The block of code is posted to a queue and all set state blocks queued before it
+     * are guaranteed to run before the get block is run. Background set state blocks queued after it are not, even if
+     * they were queued before the get block started running. Interactive set state blocks are drained first and may
+     * be applied before the get block regardless of when they were queued.
+     */
+    override fun get(block: (S) -> Unit) {
+        queue.enqueueGetStateBlock(block)
+        scheduleDrain()
+    }
+
+    /**
+     * Call this to update the state. The state reducer will get added to a queue that is processes
+     * on a background thread. The state reducer's receiver type is the current state when the
+     * reducer is called.
+     */
+    override fun set(reducer: S.() -> S) {
+        set(MviReducerPriority.BACKGROUND, reducer)
+    }
+
+    override fun set(priority: MviReducerPriority, reducer: S.() -> S) {
+        queue.enqueueSetStateBlock(reducer, priority)
+        scheduleDrain()
+    }
+
+    /**
+     * Only the call that moves the work counter off zero schedules a task. Calls made while that task is pending or
+     * running increment the counter and are picked up by the same drain loop, so a burst of reducers results in a
+     * single scheduled task.
+     */
+    private fun scheduleDrain() {
+        if (wip.getAndIncrement() == 0) {
+            metrics.onDrainScheduled()
+            schedule(drainTask)
+        }
+    }
+
+    private fun drain() {
+        var missed = 1
+        while (true) {
+            flushQueues()
+            missed = wip.addAndGet(-missed)
+            if (missed == 0) {
+                return
+            }
+        }
+    }
+
+    /**
+     * Processes the queue in order without recursion. Consecutive reducers are folded in batches of at most
+     * [maxReducerBatchSize] and each batch is published before the next get block runs, so a get block sees every
+     * reducer queued before it and does not wait for background reducers queued after it. Background reducers queued
+     * behind a get block run after it, even when they were queued before the drain loop reached the block.
+     */
+    private fun flushQueues() {
+        while (true) {
+            val reduced = runSetStateBlocks()
+            val block = queue.dequeueGetStateBlock()
+            if (block != null) {
+                metrics.onGetBlock(System.nanoTime() - queue.lastBlockEnqueuedAtNanos)
+                block(state)
+            } else if (reduced == 0) {
+                return
+            }
+        }
+    }
+
+    /**
+     * The interactive lane is checked before every background reducer so an interactive reducer queued during a long
+     * run of background reducers is folded next instead of waiting for the run to finish. Once interactive reducers
+     * were folded the batch ends before the next background reducer, so their state is published right away.
+     */
+    private fun runSetStateBlocks(): Int {
+        var newState = state
+        var count = 0
+        var foldedInteractive = false
+        while (count < maxReducerBatchSize) {
+            var priority = MviReducerPriority.INTERACTIVE
+            var reducer = queue.dequeueInteractiveSetStateBlock()
+            if (reducer == null) {
+                if (foldedInteractive) break
+                priority = MviReducerPriority.BACKGROUND
+                reducer = queue.dequeueSetStateBlock() ?: break
+            } else {
+                foldedInteractive = true
+            }
+            metrics.onReducerDequeued(priority, System.nanoTime() - queue.lastBlockEnqueuedAtNanos)
+            newState = newState.reducer()
+            count++
+        }
+        if (count == 0) return 0
+        metrics.onReducerBatch(count)
+        if (newState !== state) {
+            version++
+            publish(newState)
+        }
+        return count
+    }
+
+    companion object {
+        /**
+         * Large enough that a typical burst of reducers is published once, small enough that subscribers still see
+         * progress while a long burst is folded.
+         */
+        const val DEFAULT_MAX_REDUCER_BATCH_SIZE = 64
+    }
+}
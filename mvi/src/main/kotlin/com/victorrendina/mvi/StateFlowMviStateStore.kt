@@ -0,0 +1,84 @@
+package com.victorrendina.mvi
+
+import io.reactivex.Observable
+import io.reactivex.Scheduler
+import io.reactivex.disposables.Disposable
+import io.reactivex.subjects.BehaviorSubject
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.map
+import kotlin.coroutines.CoroutineContext
+import kotlin.coroutines.EmptyCoroutineContext
+
+/**
+ * State store backed by a [MutableStateFlow]. Reducers and get blocks run on a confined [dispatcher] and every new
+ * state is written straight into the state flow, so coroutine consumers collect it without going through Rx. The
+ * [observable] is fed from the same drain loop for subscribers that still use Rx.
+ *
+ * A state flow drops values that are equal to its current value. States are wrapped in a [Published] holder that is
+ * only equal to itself, so the flow emits every new instance like [observable] and equal states are only filtered by
+ * view models that use [MviChangeDetection.EQUALITY].
+ *
+ * @param dispatcher Must never run two tasks at the same time, for example a single threaded dispatcher. If it is
+ * also [Disposable] it is disposed with the store.
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+internal class StateFlowMviStateStore<S : MviState>(
+    initialState: S,
+    private val dispatcher: CoroutineDispatcher,
+    maxReducerBatchSize: Int = DEFAULT_MAX_REDUCER_BATCH_SIZE
+) : QueuedMviStateStore<S>(maxReducerBatchSize) {
+
+    private val stateFlow = MutableStateFlow(Published(initialState))
+    private val subject: BehaviorSubject<S> = BehaviorSubject.createDefault(initialState)
+
+    @Volatile
+    private var disposed = false
+
+    override val observable: Observable<S> = subject.hide()
+
+    override val flow: Flow<S> = stateFlow.map { it.state }
+
+    override val state: S
+        get() = stateFlow.value.state
+
+    override fun schedule(task: Runnable) {
+        dispatcher.dispatch(EmptyCoroutineContext, task)
+    }
+
+    override fun publish(state: S) {
+        stateFlow.value = Published(state)
+        subject.onNext(state)
+    }
+
+    override fun isDisposed(): Boolean = disposed
+
+    override fun dispose() {
+        disposed = true
+        (dispatcher as? Disposable)?.dispose()
+    }
+
+    /**
+     * Holder that does not override equals, so every published state is a new value for the state flow.
+     */
+    private class Published<S>(val state: S)
+
+    /**
+     * Confined dispatcher that runs on a serial lane of the [MviStateStorePool].
+     */
+    private class LaneDispatcher(private val lane: Scheduler.Worker) : CoroutineDispatcher(), Disposable by lane {
+        override fun dispatch(context: CoroutineContext, block: Runnable) {
+            lane.schedule(block)
+        }
+    }
+
+    companion object {
+        /**
+         * Create a store that runs on a lane of the shared [MviStateStorePool].
+         */
+        fun <S : MviState> pooled(initialState: S, maxReducerBatchSize: Int = DEFAULT_MAX_REDUCER_BATCH_SIZE) =
+            StateFlowMviStateStore(initialState, LaneDispatcher(MviStateStorePool.createLane()), maxReducerBatchSize)
+    }
+}
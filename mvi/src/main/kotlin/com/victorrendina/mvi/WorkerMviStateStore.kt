@@ -1,59 +1,61 @@
 package com.victorrendina.mvi
 
 import io.reactivex.Observable
+import io.reactivex.Scheduler
 import io.reactivex.schedulers.Schedulers
 import io.reactivex.subjects.BehaviorSubject
 
-internal class WorkerMviStateStore<S : MviState>(initialState: S) : MviStateStore<S> {
-
-    private val scheduler = Schedulers.newThread()
-    private val worker = scheduler.createWorker()
+/**
+ * State store that processes reducers on a [Scheduler.Worker]. By default every store gets its own thread, use
+ * [pooled] to run the store on a serial lane of the shared [MviStateStorePool] instead or [immediate] to process
+ * reducers on the main thread.
+ *
+ * @param emitsOnMainThread Must only be true if the worker always runs its tasks on the main thread.
+ */
+internal class WorkerMviStateStore<S : MviState>(
+    initialState: S,
+    private val worker: Scheduler.Worker = Schedulers.newThread().createWorker(),
+    maxReducerBatchSize: Int = DEFAULT_MAX_REDUCER_BATCH_SIZE,
+    override val emitsOnMainThread: Boolean = false
+) : QueuedMviStateStore<S>(maxReducerBatchSize) {
 
     private val subject: BehaviorSubject<S> = BehaviorSubject.createDefault(initialState)
-    private val queue = MviStateQueue<S>()
 
-    override val observable: Observable<S> = subject.distinctUntilChanged()
+    override val observable: Observable<S> = subject.hide()
 
     override val state: S
         get() = subject.value!!
 
-    /**
-     * Get the current state. The block of code is posted to a queue and all pending set state blocks
-     * are guaranteed to run before the get block is run.
-     */
-    override fun get(block: (S) -> Unit) {
-        queue.enqueueGetStateBlock(block)
-        worker.schedule { flushQueues() }
-    }
-
-    /**
-     * Call this to update the state. The state reducer will get added to a queue that is processes
-     * on a background thread. The state reducer's receiver type is the current state when the
-     * reducer is called.
-     */
-    override fun set(reducer: S.() -> S) {
-        queue.enqueueSetStateBlock(reducer)
-        worker.schedule { flushQueues() }
+    override fun schedule(task: Runnable) {
+        worker.schedule(task)
     }
 
-    private fun flushQueues() {
-        // Execute any pending state updates first
-        runSetStateBlocks()
-        // If there is a get state block
-        val block = queue.dequeueGetStateBlock() ?: return
-        block(state)
-        flushQueues()
-    }
-
-    private fun runSetStateBlocks() {
-        val blocks = queue.dequeueAllSetStateBlocks() ?: return
-        blocks.fold(state) { state, reducer -> state.reducer() }.run { subject.onNext(this) }
+    override fun publish(state: S) {
+        subject.onNext(state)
     }
 
     override fun isDisposed(): Boolean = worker.isDisposed
 
     override fun dispose() {
         worker.dispose()
-        scheduler.shutdown()
     }
-}
\ No newline at end of file
+
+    companion object {
+        /**
+         * Create a store that shares threads with other stores through the [MviStateStorePool].
+         */
+        fun <S : MviState> pooled(initialState: S, maxReducerBatchSize: Int = DEFAULT_MAX_REDUCER_BATCH_SIZE) =
+            WorkerMviStateStore(initialState, MviStateStorePool.createLane(), maxReducerBatchSize)
+
+        /**
+         * Create a store that runs reducers synchronously when [set] or [get] are called on the main thread and the
+         * store is idle, and posts them to the main thread otherwise. Calls made while earlier work is still posted
+         * or running are queued behind it, so get and set blocks keep their order.
+         */
+        fun <S : MviState> immediate(initialState: S) = WorkerMviStateStore(
+            initialState,
+            ImmediateMainThreadScheduler.createWorker(),
+            emitsOnMainThread = true
+        )
+    }
+}
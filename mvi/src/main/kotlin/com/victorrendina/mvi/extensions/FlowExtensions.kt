@@ -0,0 +1,19 @@
+package com.victorrendina.mvi.extensions
+
+import io.reactivex.Observable
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.callbackFlow
+
+/**
+ * Bridge an [Observable] to a [Flow] that only keeps the latest value when the collector is slower than the source.
+ * Every emission goes through a channel, so prefer a native flow where one is available.
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+internal fun <T : Any> Observable<T>.toConflatedFlow(): Flow<T> = callbackFlow<T> {
+    val subscription = subscribe({ offer(it) }, { close(it) }, { close() })
+    awaitClose { subscription.dispose() }
+}.buffer(Channel.CONFLATED)
@@ -0,0 +1,25 @@
+package com.victorrendina.mvi
+
+import java.io.File
+
+/**
+ * JUnit category of the benchmarks. They take several seconds and depend on the machine, so they are excluded from
+ * the default test run. Run them with `./gradlew :mvi:testDebugUnitTest -Pbenchmarks`, results are written to
+ * `mvi/build/reports/benchmarks`.
+ */
+interface MviBenchmark {
+
+    companion object {
+
+        /**
+         * Write the result lines of a benchmark to its report file, replacing the results of an earlier run.
+         */
+        fun report(name: String, lines: List<String>) {
+            val directory = File(System.getProperty(REPORT_DIR_PROPERTY) ?: "build/reports/benchmarks")
+            directory.mkdirs()
+            File(directory, "$name.txt").writeText(lines.joinToString(separator = "\n", postfix = "\n"))
+        }
+
+        private const val REPORT_DIR_PROPERTY = "mvi.benchmarkReportDir"
+    }
+}
@@ -0,0 +1,77 @@
+package com.victorrendina.mvi
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.GlobalScope
+import kotlinx.coroutines.flow.collect
+import kotlinx.coroutines.launch
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.coroutines.CoroutineContext
+
+class MviChangeDetectionTest {
+
+    data class TestState(
+        val ratio: Double = 0.5,
+        val total: Long = 1_000_000L,
+        val title: String = "title",
+        val items: List<Int> = listOf(1, 2, 3)
+    ) : MviState
+
+    @Test
+    fun `boxed primitives and strings compare by value in reference mode`() {
+        val selection = MviPropertySelection3(TestState::ratio, TestState::total, TestState::title, true)
+        assertTrue(selection.update(TestState()))
+        assertFalse(selection.update(TestState(title = StringBuilder("tit").append("le").toString())))
+        assertTrue(selection.update(TestState(ratio = 0.25)))
+    }
+
+    @Test
+    fun `other objects compare by reference in reference mode`() {
+        val selection = MviPropertySelection1(TestState::items, true)
+        val state = TestState()
+        assertTrue(selection.update(state))
+        assertFalse(selection.update(state.copy(ratio = 1.0)))
+        assertTrue(selection.update(state.copy(items = listOf(1, 2, 3))))
+    }
+
+    @Test
+    fun `derived selector does not recompute for equal boxed inputs in reference mode`() {
+        var computed = 0
+        val selector = MviDerivedSelector<TestState, Double>(
+            "scaled",
+            arrayOf<(TestState) -> Any?>(TestState::ratio, TestState::total),
+            true
+        ) {
+            computed++
+            (it[0] as Double) * (it[1] as Long)
+        }
+        selector(TestState())
+        selector(TestState())
+        assertEquals(1, computed)
+    }
+
+    @Test
+    fun `state flow store emits equal states that are new instances`() {
+        val store = StateFlowMviStateStore(TestState(), ImmediateDispatcher)
+        val collected = ArrayList<TestState>()
+        val job = GlobalScope.launch(Dispatchers.Unconfined) { store.flow.collect { collected.add(it) } }
+
+        store.set { copy() }
+        store.set { copy() }
+        store.set { this }
+        job.cancel()
+        store.dispose()
+
+        assertEquals(3, collected.size)
+        assertEquals(2L, store.version)
+    }
+
+    private object ImmediateDispatcher : CoroutineDispatcher() {
+        override fun dispatch(context: CoroutineContext, block: Runnable) {
+            block.run()
+        }
+    }
+}
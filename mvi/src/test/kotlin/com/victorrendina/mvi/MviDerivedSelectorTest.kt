@@ -0,0 +1,56 @@
+package com.victorrendina.mvi
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Caching of derived selectors. The view model computes them on the store thread before a frame aligned state reaches
+ * the main thread, which must then reuse the result instead of computing it again.
+ */
+class MviDerivedSelectorTest {
+
+    data class TestState(val items: List<Int> = emptyList(), val title: String = "") : MviState
+
+    private var computations = 0
+    private val selector = MviDerivedSelector<TestState, Int>(
+        "sum",
+        arrayOf<(TestState) -> Any?>({ it.items }),
+        false
+    ) { inputs ->
+        computations++
+        @Suppress("UNCHECKED_CAST")
+        (inputs[0] as List<Int>).sum()
+    }
+
+    @Test
+    fun `result computed on another thread is reused for the same state`() {
+        val state = TestState(listOf(1, 2, 3))
+        val thread = Thread { selector(state) }
+        thread.start()
+        thread.join()
+
+        assertEquals(6, selector(state))
+        assertEquals(1, computations)
+    }
+
+    @Test
+    fun `result is only recomputed when an input changed`() {
+        assertEquals(3, selector(TestState(listOf(1, 2))))
+        assertEquals(3, selector(TestState(listOf(1, 2), title = "unrelated")))
+        assertEquals(1, computations)
+
+        assertEquals(4, selector(TestState(listOf(4))))
+        assertEquals(2, computations)
+    }
+
+    @Test
+    fun `older state with different inputs is computed again`() {
+        val older = TestState(listOf(1))
+        val newer = TestState(listOf(2))
+        selector(older)
+        selector(newer)
+
+        assertEquals(1, selector(older))
+        assertEquals(3, computations)
+    }
+}
@@ -0,0 +1,217 @@
+package com.victorrendina.mvi
+
+import io.reactivex.schedulers.Schedulers
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Delivery, buffering and routing of the message center. Subscribers run on the trampoline scheduler so every message
+ * is delivered before the call that made it deliverable returns.
+ */
+class MviMessageCenterTest {
+
+    private val center = MviMessageCenter(Schedulers.trampoline())
+
+    @After
+    fun tearDown() {
+        center.dispose()
+    }
+
+    @Test
+    fun `every subscriber receives every message once`() {
+        val first = receive()
+        val second = receive()
+        center.send("a")
+        center.send("b")
+
+        assertEquals(listOf("a", "b"), first)
+        assertEquals(listOf("a", "b"), second)
+        assertEquals(0, center.size)
+    }
+
+    @Test
+    fun `messages sent without subscribers are kept for the first one`() {
+        center.send("a")
+        center.send("b")
+
+        assertEquals(listOf("a", "b"), receive())
+        assertEquals(0, center.size)
+    }
+
+    @Test
+    fun `paused subscriber receives buffered messages in order when resumed`() {
+        val active = receive()
+        val paused = ArrayList<Any>()
+        val subscription = center.subscribe { paused.add(it) }
+        center.send("a")
+        center.send("b")
+
+        assertEquals(listOf("a", "b"), active)
+        assertEquals(emptyList<Any>(), paused)
+        assertEquals(2, center.size)
+
+        subscription.resume()
+        assertEquals(listOf("a", "b"), paused)
+        assertEquals(0, center.size)
+    }
+
+    @Test
+    fun `messages read by the last subscriber are not delivered again`() {
+        val first = center.subscribe { }
+        first.resume()
+        center.send("a")
+        first.dispose()
+        center.send("b")
+
+        assertEquals(listOf("b"), receive())
+    }
+
+    @Test
+    fun `oldest messages are dropped above the maximum count`() {
+        val policy = MviMessagePolicy(maxCount = 2)
+        (1..4).forEach { center.send(it, policy = policy) }
+
+        assertEquals(listOf(3, 4), receive())
+        assertEquals(2L, center.droppedMessages)
+    }
+
+    @Test
+    fun `newest messages are dropped above the maximum count`() {
+        val policy = MviMessagePolicy(maxCount = 2, overflow = MviMessagePolicy.Overflow.DROP_NEWEST)
+        (1..4).forEach { center.send(it, policy = policy) }
+
+        assertEquals(listOf(1, 2), receive())
+        assertEquals(2L, center.droppedMessages)
+    }
+
+    @Test
+    fun `expired messages are skipped and counted once`() {
+        val first = ArrayList<Any>()
+        val second = ArrayList<Any>()
+        val firstSubscription = center.subscribe { first.add(it) }
+        val secondSubscription = center.subscribe { second.add(it) }
+        center.send("expires", policy = MviMessagePolicy(maxAgeMillis = 1))
+        center.send("kept")
+        Thread.sleep(10)
+
+        firstSubscription.resume()
+        secondSubscription.resume()
+        assertEquals(listOf("kept"), first)
+        assertEquals(listOf("kept"), second)
+        assertEquals(1L, center.expiredMessages)
+    }
+
+    @Test
+    fun `keyed message replaces an unread message in place`() {
+        center.send("scroll 1", coalesceKey = "scroll")
+        center.send("toast")
+        center.send("scroll 2", coalesceKey = "scroll")
+
+        assertEquals(listOf("scroll 2", "toast"), receive())
+        assertEquals(1L, center.coalescedMessages)
+    }
+
+    @Test
+    fun `keyed message is appended once its predecessor was read`() {
+        val received = receive()
+        center.send("scroll 1", coalesceKey = "scroll")
+        center.send("scroll 2", coalesceKey = "scroll")
+
+        assertEquals(listOf("scroll 1", "scroll 2"), received)
+        assertEquals(0L, center.coalescedMessages)
+    }
+
+    @Test
+    fun `keyed message of another class is appended`() {
+        center.send("scroll", coalesceKey = "scroll")
+        center.send(1, coalesceKey = "scroll")
+
+        assertEquals(listOf<Any>("scroll", 1), receive())
+        assertEquals(0L, center.coalescedMessages)
+    }
+
+    @Test
+    fun `paused subscriber continues after the messages dropped while it was paused`() {
+        val received = ArrayList<Any>()
+        val subscription = center.subscribe { received.add(it) }
+        val policy = MviMessagePolicy(maxCount = 2)
+        (1..5).forEach { center.send(it, policy = policy) }
+
+        subscription.resume()
+        assertEquals(listOf<Any>(4, 5), received)
+        assertEquals(0, center.size)
+    }
+
+    @Test
+    fun `subscribers of other types do not prevent coalescing`() {
+        val numbers = center.subscribe(Int::class.java) { }
+        numbers.resume()
+        val strings = ArrayList<String>()
+        val paused = center.subscribe(String::class.java) { strings.add(it) }
+        center.send("scroll 1", coalesceKey = "scroll")
+        center.send("scroll 2", coalesceKey = "scroll")
+
+        paused.resume()
+        assertEquals(listOf("scroll 2"), strings)
+        assertEquals(1L, center.coalescedMessages)
+    }
+
+    @Test
+    fun `messages are routed to subscribers of their type`() {
+        val strings = ArrayList<String>()
+        val numbers = ArrayList<Number>()
+        center.subscribe(String::class.java) { strings.add(it) }.resume()
+        center.subscribe(Number::class.java) { numbers.add(it) }.resume()
+        center.send("a")
+        center.send(1)
+        center.send(2L)
+
+        assertEquals(listOf("a"), strings)
+        assertEquals(listOf<Number>(1, 2L), numbers)
+        assertEquals(0, center.size)
+    }
+
+    @Test
+    fun `primitive types receive boxed messages`() {
+        val numbers = ArrayList<Int>()
+        center.subscribe(Int::class.javaPrimitiveType!!) { numbers.add(it) }.resume()
+        center.send(1)
+
+        assertEquals(listOf(1), numbers)
+        assertEquals(0L, center.unhandledMessages)
+    }
+
+    @Test
+    fun `messages nobody handles are kept for a later subscriber of their type`() {
+        val strings = ArrayList<String>()
+        center.subscribe(String::class.java) { strings.add(it) }.resume()
+        center.send(1)
+        center.send("a")
+
+        assertEquals(listOf("a"), strings)
+        assertEquals(1L, center.unhandledMessages)
+
+        val numbers = ArrayList<Int>()
+        center.subscribe(Int::class.java) { numbers.add(it) }.resume()
+        assertEquals(listOf(1), numbers)
+        assertEquals(0, center.size)
+    }
+
+    @Test
+    fun `messages handled by one subscriber do not wait for subscribers of other types`() {
+        center.subscribe(String::class.java) { }
+        val numbers = ArrayList<Int>()
+        center.subscribe(Int::class.java) { numbers.add(it) }.resume()
+        center.send(1)
+
+        assertEquals(listOf(1), numbers)
+        assertEquals(0, center.size)
+    }
+
+    private fun receive(): List<Any> {
+        val received = ArrayList<Any>()
+        center.subscribe { received.add(it) }.resume()
+        return received
+    }
+}
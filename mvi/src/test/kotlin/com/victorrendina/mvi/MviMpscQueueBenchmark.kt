@@ -0,0 +1,97 @@
+package com.victorrendina.mvi
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.experimental.categories.Category
+import java.util.LinkedList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares the throughput of [MviMpscQueue] against the synchronized [LinkedList] queue it replaced with 1, 4 and 16
+ * producer threads feeding a single consumer. Results are written to the [MviBenchmark] report, the assertions only
+ * check that every item was delivered exactly once and in order for each producer.
+ */
+@Category(MviBenchmark::class)
+class MviMpscQueueBenchmark {
+
+    private class Item(val producer: Int, val sequence: Int)
+
+    private interface BenchmarkQueue {
+        fun offer(item: Item)
+        fun poll(): Item?
+    }
+
+    private class LockFreeQueue : BenchmarkQueue {
+        private val queue = MviMpscQueue<Item>()
+        override fun offer(item: Item) = queue.offer(item)
+        override fun poll(): Item? = queue.poll()
+    }
+
+    private class SynchronizedQueue : BenchmarkQueue {
+        private val queue = LinkedList<Item>()
+        @Synchronized
+        override fun offer(item: Item) {
+            queue.add(item)
+        }
+
+        @Synchronized
+        override fun poll(): Item? = queue.pollFirst()
+    }
+
+    @Test
+    fun `throughput with 1 4 and 16 producers`() {
+        val results = ArrayList<String>()
+        for (producers in listOf(1, 4, 16)) {
+            // Warm up both implementations before measuring
+            run(LockFreeQueue(), producers)
+            run(SynchronizedQueue(), producers)
+
+            val lockFree = run(LockFreeQueue(), producers)
+            val synchronized = run(SynchronizedQueue(), producers)
+            results.add(
+                "producers=%2d  mpsc=%,12.0f ops/s  synchronized=%,12.0f ops/s  speedup=%.2fx".format(
+                    producers, lockFree, synchronized, lockFree / synchronized
+                )
+            )
+        }
+        MviBenchmark.report("mpsc-queue-throughput", results)
+    }
+
+    /**
+     * Returns the number of items moved through the queue per second.
+     */
+    private fun run(queue: BenchmarkQueue, producers: Int): Double {
+        val perProducer = TOTAL_ITEMS / producers
+        val items = Array(producers) { producer -> Array(perProducer) { Item(producer, it) } }
+        val start = CountDownLatch(1)
+        val threads = (0 until producers).map { producer ->
+            Thread {
+                start.await()
+                items[producer].forEach { queue.offer(it) }
+            }.apply { start() }
+        }
+
+        val nextSequence = IntArray(producers)
+        val expected = perProducer * producers
+        var received = 0
+        val startTime = System.nanoTime()
+        start.countDown()
+        while (received < expected) {
+            val item = queue.poll() ?: continue
+            assertEquals(nextSequence[item.producer], item.sequence)
+            nextSequence[item.producer]++
+            received++
+        }
+        val elapsed = System.nanoTime() - startTime
+        threads.forEach { it.join() }
+
+        assertEquals(expected, received)
+        assertEquals(null, queue.poll())
+        return expected / (elapsed.toDouble() / TimeUnit.SECONDS.toNanos(1))
+    }
+
+    companion object {
+        private const val TOTAL_ITEMS = 960_000
+    }
+}
@@ -0,0 +1,32 @@
+package com.victorrendina.mvi
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class MviMpscQueueTest {
+
+    @Test
+    fun `items offered across segments are polled in order`() {
+        val queue = MviMpscQueue<Int>(segmentSize = 4)
+        assertTrue(queue.isEmpty())
+        (0 until 10).forEach { queue.offer(it) }
+        assertFalse(queue.isEmpty())
+        (0 until 10).forEach { assertEquals(it, queue.poll()) }
+        assertEquals(null, queue.poll())
+        assertTrue(queue.isEmpty())
+    }
+
+    @Test
+    fun `stamps are returned with their items across segments`() {
+        val queue = MviMpscQueue<Int>(segmentSize = 4)
+        (0 until 10).forEach { queue.offer(it, it * 10L) }
+        (0 until 10).forEach {
+            assertEquals(it, queue.peek())
+            assertEquals(it * 10L, queue.lastPeekedStamp)
+            assertEquals(it, queue.poll())
+            assertEquals(it * 10L, queue.lastPolledStamp)
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.victorrendina.mvi
+
+import io.reactivex.functions.Consumer
+import io.reactivex.internal.functions.Functions
+import io.reactivex.internal.observers.LambdaObserver
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.subjects.PublishSubject
+import org.junit.Assert.assertEquals
+import org.junit.Assume.assumeTrue
+import org.junit.Test
+import org.junit.experimental.categories.Category
+import java.lang.management.ManagementFactory
+
+/**
+ * Measures the bytes allocated per state emission that does not change the selected properties. Selections of
+ * reference properties must not allocate. A primitive property is boxed every time it is read, [ListState.count] is
+ * outside the `Integer` cache so selections including it are measured with that cost and only reported. The tuple
+ * comparison the selections replaced is measured alongside for reference. Results are written to the [MviBenchmark]
+ * report.
+ *
+ * Allocation counters are read from the HotSpot thread bean, the test is skipped on virtual machines without it.
+ */
+@Category(MviBenchmark::class)
+class MviSelectionAllocationBenchmark {
+
+    class Item(val id: Int)
+
+    data class ListState(
+        val title: String,
+        val items: List<Item>,
+        val selected: Item?,
+        val count: Int
+    ) : MviState
+
+    private val threadBean = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+
+    // Equal states that are different instances, like the result of a reducer that copies without changing anything
+    private val items = List(100) { Item(it) }
+    private val states = Array(2) { ListState("List", items, items[3], 1000) }
+
+    private val title: (ListState) -> String = { it.title }
+    private val list: (ListState) -> List<Item> = { it.items }
+    private val selected: (ListState) -> Item? = { it.selected }
+    private val count: (ListState) -> Int = { it.count }
+
+    @Test
+    fun `unchanged emissions do not allocate`() {
+        assumeTrue(threadBean?.isThreadAllocatedMemorySupported == true)
+
+        val selections = listOf(
+            "1 property" to MviPropertySelection1(title, false),
+            "2 properties" to MviPropertySelection2(title, list, false),
+            "3 properties" to MviPropertySelection3(title, list, selected, false),
+            "6 properties" to MviPropertySelection6(title, list, selected, title, list, selected, false)
+        )
+        val primitiveSelections = listOf(
+            "4 with 1 Int" to MviPropertySelection4(title, list, selected, count, false),
+            "8 with 2 Ints" to MviPropertySelection8(title, list, selected, count, title, list, selected, count, false)
+        )
+        val results = arrayListOf("4 property tuple  %5.1f bytes/emission".format(bytesPerEmission(::compareTuple)))
+        for ((name, selection) in selections) {
+            val bytes = bytesPerEmission { selection.update(states[it and 1]) }
+            results.add("%-16s  %5.1f bytes/emission".format(name, bytes))
+            assertEquals("$name allocated on unchanged emissions", 0.0, bytes, TOLERANCE)
+        }
+        for ((name, selection) in primitiveSelections) {
+            val bytes = bytesPerEmission { selection.update(states[it and 1]) }
+            results.add("%-16s  %5.1f bytes/emission (boxed)".format(name, bytes))
+        }
+        MviBenchmark.report("selection-allocation", results)
+    }
+
+    @Test
+    fun `unchanged emissions through the dispatcher do not allocate`() {
+        assumeTrue(threadBean?.isThreadAllocatedMemorySupported == true)
+
+        val source = PublishSubject.create<ListState>()
+        val dispatcher = MviStateDispatcher(source, Schedulers.trampoline())
+        var delivered = 0
+        val subscriptions = (0 until SUBSCRIBERS).map {
+            val observer = LambdaObserver<Any>(
+                Consumer { delivered++ },
+                Functions.ON_ERROR_MISSING,
+                Functions.EMPTY_ACTION,
+                Functions.emptyConsumer()
+            )
+            dispatcher.subscribe(it % 4, { createSelection(it % 4) }, observer)
+        }
+        source.onNext(states[0])
+        assertEquals(SUBSCRIBERS, delivered)
+
+        val bytes = bytesPerEmission { source.onNext(states[it and 1]) }
+        MviBenchmark.report(
+            "dispatcher-allocation",
+            listOf("dispatcher with $SUBSCRIBERS subscribers  %5.1f bytes/emission".format(bytes))
+        )
+        assertEquals(0.0, bytes, TOLERANCE)
+        assertEquals(SUBSCRIBERS, delivered)
+
+        subscriptions.forEach { it.dispose() }
+        dispatcher.dispose()
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun createSelection(arity: Int): MviSelection<ListState, Any> = when (arity) {
+        0 -> MviPropertySelection1(title, false)
+        1 -> MviPropertySelection2(title, list, false)
+        2 -> MviPropertySelection3(title, list, selected, false)
+        else -> MviPropertySelection4(title, list, selected, title, false)
+    } as MviSelection<ListState, Any>
+
+    private var previousTuple: Any? = null
+    private var changedTuples = 0
+
+    // Same as map followed by distinctUntilChanged, which keeps the last tuple whether it changed or not
+    private fun compareTuple(iteration: Int) {
+        val state = states[iteration and 1]
+        val tuple = MviTuple4(title(state), list(state), selected(state), count(state))
+        if (tuple != previousTuple) {
+            changedTuples++
+        }
+        previousTuple = tuple
+    }
+
+    /**
+     * Runs the block until it is compiled and returns the average bytes allocated by the calling thread per call.
+     */
+    private inline fun bytesPerEmission(block: (Int) -> Unit): Double {
+        for (i in 0 until WARM_UP_EMISSIONS) block(i)
+        val threadId = Thread.currentThread().id
+        val before = threadBean!!.getThreadAllocatedBytes(threadId)
+        for (i in 0 until MEASURED_EMISSIONS) block(i)
+        val allocated = threadBean.getThreadAllocatedBytes(threadId) - before - measurementOverhead(threadId)
+        return allocated.coerceAtLeast(0).toDouble() / MEASURED_EMISSIONS
+    }
+
+    // Reading the counter may allocate a few bytes itself
+    private fun measurementOverhead(threadId: Long): Long {
+        val before = threadBean!!.getThreadAllocatedBytes(threadId)
+        return threadBean.getThreadAllocatedBytes(threadId) - before
+    }
+
+    companion object {
+        private const val SUBSCRIBERS = 20
+        private const val WARM_UP_EMISSIONS = 200_000
+        private const val MEASURED_EMISSIONS = 1_000_000
+
+        // Allows a few bytes from the virtual machine in the whole run, one object per emission would be 16 or more
+        private const val TOLERANCE = 0.01
+    }
+}
@@ -0,0 +1,123 @@
+package com.victorrendina.mvi
+
+import io.reactivex.Observer
+import io.reactivex.disposables.Disposable
+import io.reactivex.functions.Consumer
+import io.reactivex.internal.functions.Functions
+import io.reactivex.internal.observers.LambdaObserver
+import io.reactivex.plugins.RxJavaPlugins
+import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subjects.PublishSubject
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Selection sharing and delivery of the state dispatcher. Deliveries run on a [TestScheduler] so the test decides when
+ * queued batches are handed to the subscribers.
+ */
+class MviStateDispatcherTest {
+
+    data class TestState(val count: Int = 0, val title: String = "") : MviState
+
+    private val source = PublishSubject.create<TestState>()
+    private val scheduler = TestScheduler()
+
+    private val countKey = "count"
+    private val count: (TestState) -> Int = { it.count }
+
+    @After
+    fun tearDown() {
+        RxJavaPlugins.reset()
+    }
+
+    @Test
+    fun `subscribers with the same key share one selection`() {
+        val dispatcher = MviStateDispatcher(source, scheduler)
+        val first = ArrayList<Int>()
+        val second = ArrayList<Int>()
+        dispatcher.subscribe(countKey, ::countSelection, observer<MviTuple1<Int>> { first.add(it.p1) })
+        dispatcher.subscribe(countKey, ::countSelection, observer<MviTuple1<Int>> { second.add(it.p1) })
+
+        source.onNext(TestState(count = 1))
+        source.onNext(TestState(count = 1, title = "unrelated"))
+        source.onNext(TestState(count = 2))
+        scheduler.triggerActions()
+
+        assertEquals(1, dispatcher.deduplicatedSelections)
+        assertEquals(listOf(1, 2), first)
+        assertEquals(listOf(1, 2), second)
+        dispatcher.dispose()
+    }
+
+    @Test
+    fun `subscribers are called in subscription order for every state`() {
+        val dispatcher = MviStateDispatcher(source, scheduler)
+        val calls = ArrayList<String>()
+        dispatcher.subscribe(countKey, ::countSelection, observer<MviTuple1<Int>> { calls.add("first ${it.p1}") })
+        dispatcher.subscribe("title", ::titleSelection, observer<MviTuple1<String>> { calls.add("second ${it.p1}") })
+
+        source.onNext(TestState(count = 1, title = "a"))
+        source.onNext(TestState(count = 2, title = "a"))
+        scheduler.triggerActions()
+
+        assertEquals(listOf("first 1", "second a", "first 2"), calls)
+        dispatcher.dispose()
+    }
+
+    @Test
+    fun `throwing subscriber does not stop later deliveries`() {
+        val errors = ArrayList<Throwable>()
+        RxJavaPlugins.setErrorHandler { errors.add(it) }
+        val dispatcher = MviStateDispatcher(source, scheduler)
+        val delivered = ArrayList<Int>()
+        dispatcher.subscribe(countKey, ::countSelection, throwingObserver())
+        dispatcher.subscribe(countKey, ::countSelection, observer<MviTuple1<Int>> { delivered.add(it.p1) })
+
+        source.onNext(TestState(count = 1))
+        scheduler.triggerActions()
+        source.onNext(TestState(count = 2))
+        scheduler.triggerActions()
+
+        assertEquals(listOf(1, 2), delivered)
+        assertEquals(2, errors.size)
+        dispatcher.dispose()
+    }
+
+    @Test
+    fun `dispatcher becomes idle when the last subscription is disposed`() {
+        val idle = ArrayList<MviStateDispatcher<TestState>>()
+        val dispatcher = MviStateDispatcher(source, scheduler) { idle.add(it) }
+        val first = dispatcher.subscribe(countKey, ::countSelection, observer { })
+        val second = dispatcher.subscribe(countKey, ::countSelection, observer { })
+        assertFalse(dispatcher.isIdle)
+
+        first.dispose()
+        assertTrue(idle.isEmpty())
+        second.dispose()
+        assertEquals(listOf(dispatcher), idle)
+        assertTrue(dispatcher.isIdle)
+        dispatcher.dispose()
+    }
+
+    private fun countSelection(): MviSelection<TestState, MviTuple1<Int>> = MviPropertySelection1(count, false)
+
+    private fun titleSelection(): MviSelection<TestState, MviTuple1<String>> =
+        MviPropertySelection1(TestState::title, false)
+
+    private fun <T> throwingObserver(): Observer<T> = object : Observer<T> {
+        override fun onSubscribe(d: Disposable) = Unit
+        override fun onNext(t: T) = throw IllegalStateException("Subscriber failed")
+        override fun onError(e: Throwable) = Unit
+        override fun onComplete() = Unit
+    }
+
+    private fun <T> observer(onNext: (T) -> Unit): Observer<T> = LambdaObserver<T>(
+        Consumer { onNext(it) },
+        Functions.ON_ERROR_MISSING,
+        Functions.EMPTY_ACTION,
+        Functions.emptyConsumer()
+    )
+}
@@ -0,0 +1,90 @@
+package com.victorrendina.mvi
+
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.GlobalScope
+import kotlinx.coroutines.flow.collect
+import kotlinx.coroutines.launch
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.experimental.categories.Category
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Measures the time between calling `set` on a store and a consumer observing the new state. The Rx store is measured
+ * both with a plain Rx subscriber and through its bridged flow, the state flow store through its native flow. All
+ * consumers run inline on the thread that publishes the state so only the delivery path itself is measured. Results
+ * are written to the [MviBenchmark] report.
+ */
+@Category(MviBenchmark::class)
+class MviStateStoreLatencyBenchmark {
+
+    data class CountState(val count: Int = 0) : MviState
+
+    @Test
+    fun `emission latency of worker and state flow stores`() {
+        val results = ArrayList<String>()
+        results += measureLatency("worker + rx subscriber") { store, observed ->
+            val subscription = store.observable.subscribe { observed.set(it.count) }
+            return@measureLatency { subscription.dispose() }
+        }
+        results += measureLatency("worker + bridged flow") { store, observed ->
+            val job = GlobalScope.launch(Dispatchers.Unconfined) { store.flow.collect { observed.set(it.count) } }
+            return@measureLatency { job.cancel() }
+        }
+        results += measureLatency("state flow + flow", { StateFlowMviStateStore.pooled(it) }) { store, observed ->
+            val job = GlobalScope.launch(Dispatchers.Unconfined) { store.flow.collect { observed.set(it.count) } }
+            return@measureLatency { job.cancel() }
+        }
+        MviBenchmark.report("state-store-latency", results)
+    }
+
+    private fun measureLatency(
+        name: String,
+        createStore: (CountState) -> MviStateStore<CountState> = { WorkerMviStateStore(it) },
+        subscribe: (MviStateStore<CountState>, AtomicInteger) -> () -> Unit
+    ): String {
+        val store = createStore(CountState())
+        val observed = AtomicInteger(-1)
+        val unsubscribe = subscribe(store, observed)
+
+        measure(store, observed, 1, WARM_UP)
+        val latencies = measure(store, observed, WARM_UP + 1, ITERATIONS)
+        unsubscribe()
+        store.dispose()
+
+        latencies.sort()
+        return "%-24s median=%6.1f us  p99=%7.1f us".format(
+            name,
+            latencies[latencies.size / 2] / 1000.0,
+            latencies[latencies.size * 99 / 100] / 1000.0
+        )
+    }
+
+    private fun measure(
+        store: MviStateStore<CountState>,
+        observed: AtomicInteger,
+        from: Int,
+        count: Int
+    ): LongArray {
+        val latencies = LongArray(count)
+        for (i in 0 until count) {
+            val value = from + i
+            val start = System.nanoTime()
+            store.set { copy(count = value) }
+            while (observed.get() != value) {
+                if (System.nanoTime() - start > TIMEOUT_NANOS) {
+                    assertEquals("Timed out waiting for state", value, observed.get())
+                }
+            }
+            latencies[i] = System.nanoTime() - start
+        }
+        return latencies
+    }
+
+    companion object {
+        private const val WARM_UP = 5_000
+        private const val ITERATIONS = 20_000
+        private val TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5)
+    }
+}
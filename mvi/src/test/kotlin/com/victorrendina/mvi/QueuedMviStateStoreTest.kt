@@ -0,0 +1,104 @@
+package com.victorrendina.mvi
+
+import io.reactivex.schedulers.TestScheduler
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Processing order of the queued state stores. The store runs on a [TestScheduler] so blocks only run when the test
+ * triggers them and every queue is fully built up before the drain loop starts.
+ */
+class QueuedMviStateStoreTest {
+
+    data class TestState(
+        val interactive: Int = 0,
+        val background: Int = 0
+    ) : MviState
+
+    private val scheduler = TestScheduler()
+    private val store = WorkerMviStateStore(TestState(), scheduler.createWorker())
+    private val published = ArrayList<TestState>()
+    private val subscription = store.observable.skip(1).subscribe { published.add(it) }
+
+    @After
+    fun tearDown() {
+        subscription.dispose()
+        store.dispose()
+    }
+
+    @Test
+    fun `interactive state is published before a slow background reducer runs`() {
+        var publishedBeforeBackground: List<TestState>? = null
+        store.set(MviReducerPriority.INTERACTIVE) { copy(interactive = 1) }
+        store.set(MviReducerPriority.BACKGROUND) {
+            publishedBeforeBackground = published.toList()
+            copy(background = 1)
+        }
+        scheduler.triggerActions()
+
+        assertEquals(listOf(TestState(interactive = 1)), publishedBeforeBackground)
+        assertEquals(listOf(TestState(1, 0), TestState(1, 1)), published)
+    }
+
+    @Test
+    fun `interactive reducer queued during background reducers is published before the next one`() {
+        var publishedBeforeSecond: List<TestState>? = null
+        store.set(MviReducerPriority.BACKGROUND) {
+            store.set(MviReducerPriority.INTERACTIVE) { copy(interactive = interactive + 1) }
+            copy(background = background + 1)
+        }
+        store.set(MviReducerPriority.BACKGROUND) {
+            publishedBeforeSecond = published.toList()
+            copy(background = background + 1)
+        }
+        scheduler.triggerActions()
+
+        assertEquals(listOf(TestState(1, 1)), publishedBeforeSecond)
+        assertEquals(TestState(1, 2), store.state)
+    }
+
+    @Test
+    fun `background reducers without interactive work are published once`() {
+        repeat(5) { store.set { copy(background = background + 1) } }
+        scheduler.triggerActions()
+
+        assertEquals(listOf(TestState(background = 5)), published)
+        assertEquals(1L, store.version)
+    }
+
+    @Test
+    fun `get block sees background reducers queued before it and not the ones queued after it`() {
+        val seen = ArrayList<TestState>()
+        store.set { copy(background = 1) }
+        store.get { seen.add(it) }
+        store.set { copy(background = 2) }
+        scheduler.triggerActions()
+
+        assertEquals(listOf(TestState(background = 1)), seen)
+        assertEquals(TestState(background = 2), store.state)
+    }
+
+    @Test
+    fun `get block sees interactive reducers queued after it`() {
+        val seen = ArrayList<TestState>()
+        store.get { seen.add(it) }
+        store.set(MviReducerPriority.INTERACTIVE) { copy(interactive = 1) }
+        scheduler.triggerActions()
+
+        assertEquals(listOf(TestState(interactive = 1)), seen)
+    }
+
+    @Test
+    fun `reducers are published in batches of at most the batch size`() {
+        val batched = WorkerMviStateStore(TestState(), scheduler.createWorker(), maxReducerBatchSize = 2)
+        val states = ArrayList<TestState>()
+        val batchedSubscription = batched.observable.skip(1).subscribe { states.add(it) }
+        repeat(5) { batched.set { copy(background = background + 1) } }
+        scheduler.triggerActions()
+        batchedSubscription.dispose()
+        batched.dispose()
+
+        assertEquals(listOf(2, 4, 5), states.map { it.background })
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Context
 import android.os.Looper
 import androidx.multidex.MultiDex
 import com.squareup.leakcanary.LeakCanary
+import com.victorrendina.mvi.Mvi
 import com.victorrendina.mvi.sample.di.DaggerAppComponent
 import dagger.android.AndroidInjector
 import dagger.android.support.DaggerApplication
@@ -18,6 +19,9 @@ open class MviSampleApplication : DaggerApplication() {
 
         val asyncMainThreadScheduler = AndroidSchedulers.from(Looper.getMainLooper(), true)
         RxAndroidPlugins.setInitMainThreadSchedulerHandler { asyncMainThreadScheduler }
+
+        Mvi.useSharedStorePool = true
+        Mvi.detachStoppedSubscribers = true
     }
 
     override fun attachBaseContext(base: Context?) {
@@ -26,12 +26,12 @@ class CounterFragment : BaseFragment() {
         super.onCreate(savedInstanceState)
 
         // Subscribe to fragment view model count updates
-        viewModel.selectSubscribe(CounterViewState::count) {
+        viewModel.selectSubscribe(CounterViewStateSelectors.count) {
             coloredCounter.text = it.toString()
         }
 
         // Subscribe to activity view model count updates
-        sharedViewModel.selectSubscribe(CounterViewState::count) {
+        sharedViewModel.selectSubscribe(CounterViewStateSelectors.count) {
             sharedCounter.text = it.toString()
         }
     }
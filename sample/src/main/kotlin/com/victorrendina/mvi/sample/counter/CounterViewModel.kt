@@ -3,6 +3,7 @@ package com.victorrendina.mvi.sample.counter
 import android.util.Log
 import com.victorrendina.mvi.MviArgs
 import com.victorrendina.mvi.MviState
+import com.victorrendina.mvi.MviStateStoreFactory
 import com.victorrendina.mvi.annotations.MviViewModel
 import com.victorrendina.mvi.di.InjectableViewModelFactory
 import com.victorrendina.mvi.sample.framework.BaseViewModelArgs
@@ -23,7 +24,7 @@ data class CounterViewState(val count: Int = 0) : MviState {
 class CounterViewModel(
     initialState: CounterViewState,
     arguments: CounterArgs?
-) : BaseViewModelArgs<CounterViewState, CounterArgs>(initialState, arguments) {
+) : BaseViewModelArgs<CounterViewState, CounterArgs>(initialState, arguments, MviStateStoreFactory.IMMEDIATE) {
 
     init {
         logStateChanges()
@@ -2,10 +2,14 @@ package com.victorrendina.mvi.sample.framework
 
 import com.victorrendina.mvi.MviArgs
 import com.victorrendina.mvi.MviState
+import com.victorrendina.mvi.MviStateStoreFactory
 
 /**
  * Base view model class when arguments are not required. If you need to pass arguments to your view model
  * use [BaseViewModelArgs].
  */
 
-abstract class BaseViewModel<S : MviState>(initialState: S) : BaseViewModelArgs<S, MviArgs>(initialState, null)
\ No newline at end of file
+abstract class BaseViewModel<S : MviState>(
+    initialState: S,
+    stateStoreFactory: MviStateStoreFactory = MviStateStoreFactory.DEFAULT
+) : BaseViewModelArgs<S, MviArgs>(initialState, null, stateStoreFactory)
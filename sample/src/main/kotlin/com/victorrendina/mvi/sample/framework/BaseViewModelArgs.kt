@@ -4,17 +4,22 @@ import com.squareup.leakcanary.LeakCanary
 import com.victorrendina.mvi.BaseMviViewModel
 import com.victorrendina.mvi.MviArgs
 import com.victorrendina.mvi.MviState
+import com.victorrendina.mvi.MviStateStoreFactory
 import com.victorrendina.mvi.sample.BuildConfig
 
-abstract class BaseViewModelArgs<S : MviState, A : MviArgs>(initialState: S, arguments: A?) :
-    BaseMviViewModel<S, A>(
-        initialState = initialState,
-        arguments = arguments,
-        debugMode = BuildConfig.DEBUG
-    ) {
+abstract class BaseViewModelArgs<S : MviState, A : MviArgs>(
+    initialState: S,
+    arguments: A?,
+    stateStoreFactory: MviStateStoreFactory = MviStateStoreFactory.DEFAULT
+) : BaseMviViewModel<S, A>(
+    initialState = initialState,
+    arguments = arguments,
+    debugMode = BuildConfig.DEBUG,
+    stateStoreFactory = stateStoreFactory
+) {
 
     override fun onCleared() {
         super.onCleared()
         LeakCanary.installedRefWatcher().watch(this)
     }
-}
\ No newline at end of file
+}
@@ -1,23 +1,18 @@
 package com.victorrendina.mvi.sample.framework.autofinish
 
-import io.reactivex.Observable
-import io.reactivex.subjects.PublishSubject
+import com.victorrendina.mvi.MviEventBus
 import javax.inject.Inject
 import javax.inject.Singleton
 
 /**
- * [AutoFinishStream] provides a global event stream used to close multiple activities simultaneously that
- * have registered for the same finish keys.
+ * [AutoFinishStream] provides a global event bus used to close multiple activities simultaneously that
+ * have registered for the same finish keys. Events are only delivered to the activities registered for their key.
  */
 @Singleton
-class AutoFinishStream @Inject constructor() {
-
-    private val eventStream: PublishSubject<AutoFinishKey> = PublishSubject.create()
-
-    fun observeEvents(): Observable<AutoFinishKey> = eventStream
+class AutoFinishStream @Inject constructor() : MviEventBus<AutoFinishKey, AutoFinishKey>() {
 
     fun emitKey(key: AutoFinishKey) {
-        eventStream.onNext(key)
+        emit(key, key)
     }
 
-}
\ No newline at end of file
+}
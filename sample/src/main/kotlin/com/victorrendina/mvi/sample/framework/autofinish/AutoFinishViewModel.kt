@@ -7,6 +7,7 @@ import com.victorrendina.mvi.di.InjectableViewModelFactory
 import com.victorrendina.mvi.sample.framework.BaseViewModel
 import com.victorrendina.rxqueue2.QueueSubject
 import io.reactivex.Observable
+import io.reactivex.disposables.Disposable
 import javax.inject.Inject
 import javax.inject.Provider
 
@@ -23,26 +24,28 @@ class AutoFinishViewModel(
 
     private val eventQueue: QueueSubject<AutoFinishEvent> = QueueSubject.create()
 
+    // Handles of the stream registrations by key. Only the state decides whether an event finishes, a registration
+    // that outlived its key just receives events that are ignored.
+    private val registrations = HashMap<AutoFinishKey, Disposable>()
+
     init {
         logStateChanges()
-        autoFinishStream.observeEvents().subscribe { key ->
-            withState { state ->
-                if (state.enabled && state.registeredKeys.contains(key)) {
-                    eventQueue.onNext(AutoFinishEvent(key))
-                }
-            }
-        }.disposeOnClear()
+        initialState.registeredKeys.forEach { subscribeKey(it) }
     }
 
     fun observeFinishEvents(): Observable<AutoFinishEvent> = eventQueue
 
     fun registerKey(key: AutoFinishKey) {
+        subscribeKey(key)
         setState {
             copy(registeredKeys = registeredKeys + key)
         }
     }
 
     fun unregisterKey(key: AutoFinishKey) {
+        synchronized(registrations) {
+            registrations.remove(key)?.dispose()
+        }
         setState {
             copy(registeredKeys = registeredKeys - key)
         }
@@ -54,6 +57,26 @@ class AutoFinishViewModel(
         }
     }
 
+    private fun subscribeKey(key: AutoFinishKey) {
+        synchronized(registrations) {
+            if (!registrations.containsKey(key)) {
+                registrations[key] = subscribeEvents(autoFinishStream, key) { onKeyEmitted(key) }
+            }
+        }
+    }
+
+    /**
+     * Events arrive on whichever thread emitted them. Checking them in a get state block reads the current state and
+     * also serializes the calls to the event queue on the state store thread.
+     */
+    private fun onKeyEmitted(key: AutoFinishKey) {
+        withState { state ->
+            if (state.enabled && key in state.registeredKeys) {
+                eventQueue.onNext(AutoFinishEvent(key))
+            }
+        }
+    }
+
     fun emitKey(key: AutoFinishKey) {
         autoFinishStream.emitKey(key)
     }